@@ -19,5 +19,3 @@
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
 #-renamesourcefileattribute SourceFile
-
--keep class com.hchen.dexkitcache.DexkitCache$MemberData {*;}
\ No newline at end of file
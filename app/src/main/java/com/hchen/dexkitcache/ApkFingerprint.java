@@ -0,0 +1,126 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * apk 指纹
+ * <p>
+ * 先比较 apk 的大小与修改时间，只有两者变化时才读取 zip 中央目录里各个 classes*.dex 的 CRC32，
+ * apk 未变化时只需几次系统调用即可确认。
+ *
+ * @author 焕晨HChen
+ */
+final class ApkFingerprint {
+    private ApkFingerprint() {
+    }
+
+    /**
+     * apk 的大小与修改时间
+     */
+    @NonNull
+    static String stat(@NonNull String sourceDir) {
+        File file = new File(sourceDir);
+        return file.length() + ":" + file.lastModified();
+    }
+
+    /**
+     * 各个 dex 的名称与 CRC32，按名称排序
+     */
+    @NonNull
+    static String fingerprint(@NonNull String sourceDir) {
+        StringBuilder builder = new StringBuilder();
+        dexCrcs(sourceDir).forEach((name, crc) -> {
+            if (builder.length() > 0) builder.append(',');
+            builder.append(name).append(':').append(Long.toHexString(crc));
+        });
+        return builder.toString();
+    }
+
+    /**
+     * 读取 zip 中央目录中各个 classes*.dex 的 CRC32，不会解压 dex
+     * <p>
+     * 读取失败时退化为 apk 的大小与修改时间。
+     */
+    @NonNull
+    static Map<String, Long> dexCrcs(@NonNull String sourceDir) {
+        Map<String, Long> crcs = new TreeMap<>();
+        try (ZipFile zipFile = new ZipFile(sourceDir)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (isDexEntry(entry.getName()))
+                    crcs.put(entry.getName(), entry.getCrc());
+            }
+        } catch (IOException e) {
+            crcs.clear();
+            crcs.put(stat(sourceDir), -1L);
+        }
+        return crcs;
+    }
+
+    /**
+     * 比较两个指纹，返回内容发生变化或已被删除的 dex 名称
+     */
+    @NonNull
+    static Set<String> changedDexes(@NonNull String oldFingerprint, @NonNull String newFingerprint) {
+        Map<String, String> oldCrcs = parse(oldFingerprint);
+        Map<String, String> newCrcs = parse(newFingerprint);
+        Set<String> changed = new HashSet<>();
+        oldCrcs.forEach((name, crc) -> {
+            if (!crc.equals(newCrcs.get(name)))
+                changed.add(name);
+        });
+        return changed;
+    }
+
+    @NonNull
+    private static Map<String, String> parse(@NonNull String fingerprint) {
+        Map<String, String> crcs = new HashMap<>();
+        for (String item : fingerprint.split(",")) {
+            int index = item.lastIndexOf(':');
+            if (index > 0)
+                crcs.put(item.substring(0, index), item.substring(index + 1));
+        }
+        return crcs;
+    }
+
+    static boolean isDexEntry(@NonNull String name) {
+        if (!name.startsWith("classes") || !name.endsWith(".dex"))
+            return false;
+
+        for (int i = "classes".length(); i < name.length() - ".dex".length(); i++) {
+            if (!Character.isDigit(name.charAt(i)))
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * 类到其所在 dex 的索引
+ * <p>
+ * 只解析各个 dex 的 class_defs，用于记录缓存条目依赖的 dex，
+ * 软件更新后只有依赖的 dex 发生变化的条目才需要重新查找。
+ * <p>
+ * 以流的方式只读取 header、string_ids、type_ids、class_defs 与类名字符串，不会将 dex 整体读入内存；
+ * 索引只保存类描述符的 64 位哈希与 dex 序号，每个类占用 8 字节。
+ *
+ * @author 焕晨HChen
+ */
+final class DexIndex {
+    private static final int HEADER_SIZE = 0x70;
+    private static final int STRING_IDS_SIZE = 0x38;
+    private static final int STRING_IDS_OFF = 0x3C;
+    private static final int TYPE_IDS_SIZE = 0x40;
+    private static final int TYPE_IDS_OFF = 0x44;
+    private static final int CLASS_DEFS_SIZE = 0x60;
+    private static final int CLASS_DEFS_OFF = 0x64;
+    private static final int CLASS_DEF_ITEM_SIZE = 0x20;
+    // 哈希的低 7 位用于保存 dex 序号
+    private static final int DEX_BITS = 7;
+    private static final long DEX_MASK = (1L << DEX_BITS) - 1;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    @NonNull
+    private final String[] dexNames;
+    // 按哈希排序，低位为 dex 序号
+    @NonNull
+    private final long[] entries;
+
+    private DexIndex(@NonNull String[] dexNames, @NonNull long[] entries) {
+        this.dexNames = dexNames;
+        this.entries = entries;
+    }
+
+    /**
+     * 读取 apk 中全部 classes*.dex 并建立索引，同一个类以先出现的 dex 为准，与类加载顺序一致
+     */
+    @NonNull
+    static DexIndex build(@NonNull String sourceDir) throws IOException {
+        try (ZipFile zipFile = new ZipFile(sourceDir)) {
+            Map<Integer, ZipEntry> dexEntries = new TreeMap<>();
+            Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry entry = zipEntries.nextElement();
+                if (ApkFingerprint.isDexEntry(entry.getName()))
+                    dexEntries.put(dexOrder(entry.getName()), entry);
+            }
+            if (dexEntries.size() > DEX_MASK)
+                throw new IOException("Too many dex files: " + dexEntries.size());
+
+            List<String> dexNames = new ArrayList<>();
+            long[] entries = new long[0];
+            int count = 0;
+            for (ZipEntry entry : dexEntries.values()) {
+                long[] hashes;
+                try (DexReader reader = new DexReader(zipFile, entry)) {
+                    hashes = readClassHashes(reader);
+                }
+                if (count + hashes.length > entries.length)
+                    entries = Arrays.copyOf(entries, Math.max(count + hashes.length, entries.length * 2));
+                for (long hash : hashes) {
+                    entries[count++] = (hash & ~DEX_MASK) | dexNames.size();
+                }
+                dexNames.add(entry.getName());
+            }
+
+            entries = Arrays.copyOf(entries, count);
+            Arrays.sort(entries);
+            return new DexIndex(dexNames.toArray(new String[0]), entries);
+        }
+    }
+
+    /**
+     * 获取定义此类的 dex 名称
+     *
+     * @param descriptor 类描述符，如 Lcom/foo/Bar;
+     */
+    @Nullable
+    String dexOf(@NonNull String descriptor) {
+        long hash = 0;
+        for (int i = 0; i < descriptor.length(); i++) {
+            hash = hash(hash, descriptor.charAt(i), i == 0);
+        }
+        hash &= ~DEX_MASK;
+
+        int index = Arrays.binarySearch(entries, hash);
+        if (index < 0) index = -index - 1;
+        if (index >= entries.length || (entries[index] & ~DEX_MASK) != hash)
+            return null;
+        return dexNames[(int) (entries[index] & DEX_MASK)]; // 同一哈希中 dex 序号最小的排在最前
+    }
+
+    private static int dexOrder(@NonNull String name) {
+        String number = name.substring("classes".length(), name.length() - ".dex".length());
+        return number.isEmpty() ? 1 : Integer.parseInt(number);
+    }
+
+    private static long hash(long hash, char c, boolean first) {
+        if (first) hash = FNV_OFFSET;
+        return (hash ^ c) * FNV_PRIME;
+    }
+
+    @NonNull
+    private static long[] readClassHashes(@NonNull DexReader reader) throws IOException {
+        byte[] header = reader.read(0, HEADER_SIZE);
+        if (header[0] != 'd' || header[1] != 'e' || header[2] != 'x' || header[3] != '\n')
+            throw new IOException("Illegal dex file: " + reader.entry.getName());
+
+        int stringIdsSize = checkSize(getInt(header, STRING_IDS_SIZE));
+        int typeIdsSize = checkSize(getInt(header, TYPE_IDS_SIZE));
+        int classDefsSize = checkSize(getInt(header, CLASS_DEFS_SIZE));
+        int[] stringDataOffs = reader.readInts(getInt(header, STRING_IDS_OFF), stringIdsSize, 1);
+        int[] typeStringIds = reader.readInts(getInt(header, TYPE_IDS_OFF), typeIdsSize, 1);
+        int[] classTypeIds = reader.readInts(getInt(header, CLASS_DEFS_OFF), classDefsSize, CLASS_DEF_ITEM_SIZE / 4);
+
+        int[] offsets = new int[classDefsSize];
+        for (int i = 0; i < classDefsSize; i++) {
+            int typeId = classTypeIds[i];
+            if (typeId < 0 || typeId >= typeIdsSize)
+                throw new IOException("Illegal type index: " + typeId);
+            int stringId = typeStringIds[typeId];
+            if (stringId < 0 || stringId >= stringIdsSize)
+                throw new IOException("Illegal string index: " + stringId);
+            offsets[i] = stringDataOffs[stringId];
+        }
+
+        // 按偏移顺序读取类名字符串，只需向前跳过
+        Arrays.sort(offsets);
+        long[] hashes = new long[classDefsSize];
+        for (int i = 0; i < classDefsSize; i++) {
+            hashes[i] = reader.readStringHash(offsets[i]);
+        }
+        return hashes;
+    }
+
+    private static int checkSize(int size) throws IOException {
+        if (size < 0) throw new IOException("Illegal dex section size: " + size);
+        return size;
+    }
+
+    private static int getInt(@NonNull byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8 |
+            (bytes[offset + 2] & 0xFF) << 16 | (bytes[offset + 3] & 0xFF) << 24;
+    }
+
+    /**
+     * 以流的方式按偏移读取 dex，向后读取时重新打开
+     */
+    private static final class DexReader implements Closeable {
+        @NonNull
+        private final ZipFile zipFile;
+        @NonNull
+        private final ZipEntry entry;
+        private InputStream inputStream;
+        private long position;
+
+        private DexReader(@NonNull ZipFile zipFile, @NonNull ZipEntry entry) {
+            this.zipFile = zipFile;
+            this.entry = entry;
+        }
+
+        @NonNull
+        private byte[] read(long offset, int length) throws IOException {
+            seek(offset);
+            byte[] bytes = new byte[length];
+            int read = 0;
+            while (read < length) {
+                int n = inputStream.read(bytes, read, length - read);
+                if (n < 0) throw new IOException("Truncated dex: " + entry.getName());
+                read += n;
+            }
+            position += length;
+            return bytes;
+        }
+
+        /**
+         * 读取 count 个间隔为 stride 个 int 的 int，只保留每组的第一个
+         */
+        @NonNull
+        private int[] readInts(int offset, int count, int stride) throws IOException {
+            seek(offset & 0xFFFFFFFFL);
+            int[] values = new int[count];
+            byte[] item = new byte[stride * 4];
+            for (int i = 0; i < count; i++) {
+                readFully(item);
+                values[i] = getInt(item, 0);
+            }
+            return values;
+        }
+
+        /**
+         * 读取 string_data_item 并计算哈希：uleb128 的 utf16 长度，随后是 MUTF-8 字节
+         */
+        private long readStringHash(int offset) throws IOException {
+            seek(offset & 0xFFFFFFFFL);
+            int utf16Size = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = readByte();
+                utf16Size |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0 && shift < 35);
+
+            long hash = 0;
+            for (int i = 0; i < utf16Size; i++) {
+                int a = readByte();
+                char c;
+                if (a < 0x80) {
+                    c = (char) a;
+                } else if ((a & 0xE0) == 0xC0) {
+                    c = (char) (((a & 0x1F) << 6) | (readByte() & 0x3F));
+                } else {
+                    int second = readByte() & 0x3F;
+                    int third = readByte() & 0x3F;
+                    c = (char) (((a & 0x0F) << 12) | (second << 6) | third);
+                }
+                hash = hash(hash, c, i == 0);
+            }
+            return hash;
+        }
+
+        private void readFully(@NonNull byte[] bytes) throws IOException {
+            int read = 0;
+            while (read < bytes.length) {
+                int n = inputStream.read(bytes, read, bytes.length - read);
+                if (n < 0) throw new IOException("Truncated dex: " + entry.getName());
+                read += n;
+            }
+            position += bytes.length;
+        }
+
+        private int readByte() throws IOException {
+            int b = inputStream.read();
+            if (b < 0) throw new IOException("Truncated dex: " + entry.getName());
+            position++;
+            return b;
+        }
+
+        private void seek(long offset) throws IOException {
+            if (inputStream == null || offset < position) {
+                close();
+                inputStream = new BufferedInputStream(zipFile.getInputStream(entry));
+                position = 0;
+            }
+            while (position < offset) {
+                long skipped = inputStream.skip(offset - position);
+                if (skipped <= 0) {
+                    if (inputStream.read() < 0)
+                        throw new IOException("Truncated dex: " + entry.getName());
+                    skipped = 1;
+                }
+                position += skipped;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (inputStream != null) {
+                inputStream.close();
+                inputStream = null;
+            }
+        }
+    }
+}
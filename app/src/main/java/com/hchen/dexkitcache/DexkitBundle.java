@@ -0,0 +1,139 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 预先构建的缓存包
+ * <p>
+ * 包含全部缓存条目，以及这些条目所对应的缓存版本与 apk 指纹，导入时只有两者均与当前一致才会写入缓存存储。
+ * <p>
+ * 格式：魔数(int) 格式版本(int)，之后为 Deflate 压缩的：缓存版本(int) apk 指纹(UTF) 条目数量(int)，
+ * 以及若干条目：key(UTF) value 长度(int) {@link MemberCodec} 编码的 value 字节。
+ *
+ * @author 焕晨HChen
+ */
+final class DexkitBundle {
+    private static final int MAGIC = 0x444B4231; // DKB1
+    private static final int FORMAT = 1;
+    final int version;
+    @NonNull
+    final String fingerprint;
+    @NonNull
+    final Map<String, byte[]> entries;
+
+    DexkitBundle(int version, @NonNull String fingerprint, @NonNull Map<String, byte[]> entries) {
+        this.version = version;
+        this.fingerprint = fingerprint;
+        this.entries = entries;
+    }
+
+    /**
+     * 是否适用于当前的缓存版本与 apk
+     */
+    boolean matches(int version, String fingerprint) {
+        return this.version == version && this.fingerprint.equals(fingerprint);
+    }
+
+    void write(@NonNull OutputStream outputStream) throws IOException {
+        DataOutputStream header = new DataOutputStream(outputStream);
+        header.writeInt(MAGIC);
+        header.writeInt(FORMAT);
+        header.flush();
+
+        // 不关闭调用方的流，但需要手动释放 Deflater 的 native 内存
+        Deflater deflater = new Deflater();
+        try {
+            DeflaterOutputStream deflaterStream = new DeflaterOutputStream(outputStream, deflater);
+            DataOutputStream out = new DataOutputStream(deflaterStream);
+            out.writeInt(version);
+            out.writeUTF(fingerprint);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue());
+            }
+            out.flush();
+            deflaterStream.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 读取缓存包，无法解码的条目会被丢弃
+     */
+    @NonNull
+    static DexkitBundle read(@NonNull InputStream inputStream) throws IOException {
+        DataInputStream header = new DataInputStream(inputStream);
+        if (header.readInt() != MAGIC)
+            throw new IOException("[DexkitCache]: Not a dexkit cache bundle!!");
+        int format = header.readInt();
+        if (format != FORMAT)
+            throw new IOException("[DexkitCache]: Unsupported bundle format: " + format);
+
+        // 不关闭调用方的流，但需要手动释放 Inflater 的 native 内存
+        Inflater inflater = new Inflater();
+        try {
+            return read(new DataInputStream(new InflaterInputStream(inputStream, inflater)));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @NonNull
+    private static DexkitBundle read(@NonNull DataInputStream in) throws IOException {
+        int version = in.readInt();
+        String fingerprint = in.readUTF();
+        int count = in.readInt();
+        if (count < 0)
+            throw new IOException("[DexkitCache]: Illegal bundle entry count: " + count);
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            int length = in.readInt();
+            if (length < 0)
+                throw new IOException("[DexkitCache]: Illegal bundle entry length: " + length);
+
+            byte[] value = new byte[length];
+            in.readFully(value);
+            try {
+                MemberCodec.decode(value);
+                entries.put(key, value);
+            } catch (UnexpectedException ignored) {
+            }
+        }
+        return new DexkitBundle(version, fingerprint, entries);
+    }
+}
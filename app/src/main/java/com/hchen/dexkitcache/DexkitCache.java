@@ -18,78 +18,60 @@
  */
 package com.hchen.dexkitcache;
 
-import android.annotation.SuppressLint;
-import android.os.Build;
-import android.text.TextUtils;
-import android.util.Log;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
-import com.tencent.mmkv.MMKV;
-
-import org.luckypray.dexkit.DexKitBridge;
-import org.luckypray.dexkit.result.BaseDataList;
-import org.luckypray.dexkit.result.ClassData;
-import org.luckypray.dexkit.result.ClassDataList;
-import org.luckypray.dexkit.result.FieldData;
-import org.luckypray.dexkit.result.FieldDataList;
-import org.luckypray.dexkit.result.MethodData;
-import org.luckypray.dexkit.result.MethodDataList;
-import org.luckypray.dexkit.result.base.BaseData;
-import org.luckypray.dexkit.wrap.DexClass;
-import org.luckypray.dexkit.wrap.DexField;
-import org.luckypray.dexkit.wrap.DexMethod;
-
-import java.io.File;
-import java.lang.reflect.Array;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Dexkit 缓存构建与解析工具
+ * <p>
+ * 可在多个线程中同时使用，不同 key 的查找并行执行，同一 key 的并发未命中只会执行一次查找。
+ * <p>
+ * 每个类加载器、apk 与缓存名称对应一个 {@link DexkitCacheInstance}，保存在容量有限的 LRU 中，
+ * 静态方法使用 {@link #init} 创建的默认实例，指定其他类加载器时使用与默认实例配置相同的另一个实例，
+ * 因此在多个类加载器之间切换时不会反复释放与重新创建 DexKitBridge。
  *
  * @author 焕晨HChen
  * @noinspection FieldCanBeLocal, unused
  */
 public final class DexkitCache {
-    private static final String TAG = "DexkitCache";
-    private static final String KEY_VERSION = "version";
-    private static final String KEY_PACKAGE_INFO = "package_info";
-    private static final String KEY_SYSTEM_VERSION = "system_version";
-    private static final String TYPE_METHOD = "METHOD";
-    private static final String TYPE_CLASS = "CLASS";
-    private static final String TYPE_FIELD = "FIELD";
-    private static String mmkvPath = "/files/hchen/dexkit_cache";
-    private static String cacheName;
-    private static int version = 1;
-    private static ClassLoader classLoader;
-    private static String sourceDir = null;
-    private static String dataDir = null;
-    private static String mmkvFinalPath = null;
-    private static MMKV mmkv = null;
-    private static Gson gson = null;
-    private static DexKitBridge dexKitBridge = null;
-    private static IInitialization iInitialization = null;
-    private static boolean isAvailable = true;
+    private static final String DEFAULT_CACHE_PATH = "/files/hchen/dexkit_cache";
+    private static volatile String cachePath = DEFAULT_CACHE_PATH;
+    private static volatile String cacheName;
+    private static volatile int version = 1;
+    private static volatile ClassLoader classLoader;
+    private static volatile String sourceDir = null;
+    private static volatile String dataDir = null;
+    // 由静态方法创建的实例共用的设置
+    private static final DexkitCacheInstance.Settings settings = new DexkitCacheInstance.Settings();
+    private static volatile DexkitCacheInstance defaultInstance = null;
+    private static volatile int maxInstances = 4;
+    // 按最近使用顺序排列的全部实例，由自身的锁保护
+    private static final LinkedHashMap<Target, DexkitCacheInstance> instances = new LinkedHashMap<>(16, 0.75f, true);
 
     private DexkitCache() {
     }
 
     public static void init(@NonNull String cacheName, @NonNull ClassLoader classLoader, @NonNull String sourceDir, @NonNull String dataDir) {
-        init("/files/hchen/dexkit_cache", cacheName, classLoader, sourceDir, dataDir, 1);
+        init(DEFAULT_CACHE_PATH, cacheName, classLoader, sourceDir, dataDir, 1);
     }
 
     public static void init(@NonNull String cacheName, @NonNull ClassLoader classLoader, @NonNull String sourceDir, @NonNull String dataDir, int version) {
-        init("/files/hchen/dexkit_cache", cacheName, classLoader, sourceDir, dataDir, version);
+        init(DEFAULT_CACHE_PATH, cacheName, classLoader, sourceDir, dataDir, version);
     }
 
     public static void init(@NonNull String cachePath, @NonNull String cacheName, @NonNull ClassLoader classLoader, @NonNull String sourceDir, @NonNull String dataDir) {
@@ -107,87 +89,324 @@ public final class DexkitCache {
      * @param version     当前使用的缓存版本，请注意不同版本会导致所有缓存被删除
      */
     public static void init(@NonNull String cachePath, @NonNull String cacheName, @NonNull ClassLoader classLoader, @NonNull String sourceDir, @NonNull String dataDir, int version) {
-        DexkitCache.mmkvPath = cachePath;
-        DexkitCache.cacheName = cacheName;
-        DexkitCache.classLoader = classLoader;
-        DexkitCache.sourceDir = sourceDir;
-        DexkitCache.dataDir = dataDir;
-        DexkitCache.version = version;
+        synchronized (settings) {
+            DexkitCache.cachePath = cachePath;
+            DexkitCache.cacheName = cacheName;
+            DexkitCache.classLoader = classLoader;
+            DexkitCache.sourceDir = sourceDir;
+            DexkitCache.dataDir = dataDir;
+            DexkitCache.version = version;
+            defaultInstance = obtainInstance(settings, cachePath, cacheName, classLoader, sourceDir, dataDir, version);
+            if (settings.prebuildBridge)
+                defaultInstance.prebuildBridge();
+        }
     }
 
     /**
      * 更换新的类加载器
+     * <p>
+     * 之前的类加载器对应的实例仍保留在 LRU 中，再次切换回来时无需重新查找。
      */
     public static void setClassLoader(@NonNull ClassLoader classLoader) {
-        DexkitCache.classLoader = classLoader;
-        autoReloadIfNeed(classLoader);
+        synchronized (settings) {
+            DexkitCache.classLoader = classLoader;
+            defaultInstance = null;
+        }
     }
 
     /**
-     * 在 MMKV 初始化时回调
-     * */
-    public static void setInitializationListener(IInitialization iInitialization) {
-        DexkitCache.iInitialization = iInitialization;
+     * 获取类加载器、apk 与缓存名称对应的实例，实例不存在时创建
+     * <p>
+     * 通过此方法创建的实例拥有独立的设置，不受 {@link DexkitCache} 的静态设置方法影响。
+     *
+     * @see #getInstance(String, String, ClassLoader, String, String, int)
+     */
+    @NonNull
+    public static DexkitCacheInstance getInstance(@NonNull String cacheName, @NonNull ClassLoader classLoader, @NonNull String sourceDir, @NonNull String dataDir) {
+        return getInstance(DEFAULT_CACHE_PATH, cacheName, classLoader, sourceDir, dataDir, 1);
+    }
+
+    /**
+     * 获取类加载器、apk 与缓存名称对应的实例，实例不存在时创建
+     * <p>
+     * 实例保存在容量有限的 LRU 中，相同的类加载器、apk 与缓存名称返回同一个实例，其余配置不同时会释放旧实例后重新创建。
+     * 相同缓存目录与名称的实例共用同一个缓存存储，应使用相同的缓存版本。
+     *
+     * @param cachePath   缓存目录
+     * @param cacheName   缓存文件名称
+     * @param classLoader 类加载器
+     * @param sourceDir   apk 路径
+     * @param dataDir     apk 数据目录
+     * @param version     当前使用的缓存版本，请注意不同版本会导致所有缓存被删除
+     * @see #setMaxInstances(int)
+     */
+    @NonNull
+    public static DexkitCacheInstance getInstance(@NonNull String cachePath, @NonNull String cacheName, @NonNull ClassLoader classLoader,
+                                                  @NonNull String sourceDir, @NonNull String dataDir, int version) {
+        return obtainInstance(null, cachePath, cacheName, classLoader, sourceDir, dataDir, version);
+    }
+
+    /**
+     * 设置 LRU 中最多保留的实例数量，默认为 4
+     * <p>
+     * 超出时最久未使用的实例会在后台释放 DexKitBridge、成员缓存与缓存存储，默认实例不会被移出。
+     * 被移出的实例仍可继续使用，之后的查找会按需重新打开。
+     */
+    public static void setMaxInstances(int maxInstances) {
+        if (maxInstances <= 0)
+            throw new IllegalArgumentException("[DexkitCache]: Max instances must be positive: " + maxInstances);
+
+        List<DexkitCacheInstance> evicted;
+        synchronized (instances) {
+            DexkitCache.maxInstances = maxInstances;
+            evicted = trimInstances();
+        }
+        evicted.forEach(DexkitCacheInstance::releaseAsync);
+    }
+
+    @NonNull
+    private static DexkitCacheInstance obtainInstance(@Nullable DexkitCacheInstance.Settings settings, @NonNull String cachePath, @NonNull String cacheName,
+                                                      @NonNull ClassLoader classLoader, @NonNull String sourceDir, @NonNull String dataDir, int version) {
+        Target target = new Target(classLoader, sourceDir, cacheName);
+        DexkitCacheInstance stale;
+        synchronized (instances) {
+            stale = instances.get(target);
+            if (stale != null && stale.matches(cachePath, dataDir, version))
+                return stale;
+            if (stale != null) instances.remove(target);
+        }
+        if (stale != null) {
+            if (stale == defaultInstance) defaultInstance = null;
+            stale.release(); // 先关闭旧的缓存存储，之后按新的配置打开
+        }
+
+        DexkitCacheInstance instance;
+        List<DexkitCacheInstance> evicted;
+        synchronized (instances) {
+            instance = instances.get(target);
+            if (instance == null) {
+                instance = new DexkitCacheInstance(settings == null ? new DexkitCacheInstance.Settings() : settings,
+                    cachePath, cacheName, classLoader, sourceDir, dataDir, version);
+                instances.put(target, instance);
+            }
+            evicted = trimInstances();
+        }
+        evicted.forEach(DexkitCacheInstance::releaseAsync);
+        return instance;
+    }
+
+    /**
+     * 移出超出数量的最久未使用的实例，需要持有 instances 的锁
+     */
+    @NonNull
+    private static List<DexkitCacheInstance> trimInstances() {
+        List<DexkitCacheInstance> evicted = new ArrayList<>();
+        Iterator<DexkitCacheInstance> iterator = instances.values().iterator();
+        while (instances.size() > maxInstances && iterator.hasNext()) {
+            DexkitCacheInstance instance = iterator.next();
+            if (instance == defaultInstance) continue;
+
+            iterator.remove();
+            evicted.add(instance);
+        }
+        return evicted;
     }
 
+    /**
+     * 获取默认实例，在更换类加载器后按需创建
+     */
     @NonNull
-    private static DexKitBridge createDexkitBridge(@NonNull ClassLoader classLoader) {
+    private static DexkitCacheInstance defaultInstance() {
+        DexkitCacheInstance instance = defaultInstance;
+        if (instance != null) return instance;
+
+        synchronized (settings) {
+            instance = defaultInstance;
+            if (instance == null)
+                defaultInstance = instance = instanceFor(classLoader);
+        }
+        return instance;
+    }
+
+    /**
+     * 获取与默认实例配置相同，但使用指定类加载器的实例
+     */
+    @NonNull
+    private static DexkitCacheInstance instanceFor(ClassLoader classLoader) {
+        DexkitCacheInstance instance = defaultInstance;
+        if (instance != null && instance.classLoader == classLoader)
+            return instance;
+
         if (Objects.isNull(classLoader))
             throw new NullPointerException("[DexkitCache]: ClassLoader must not be null!!");
         if (Objects.isNull(sourceDir))
             throw new NullPointerException("[DexkitCache]: Source dir must not be null!!");
         if (Objects.isNull(dataDir))
             throw new NullPointerException("[DexkitCache]: Data dir must not be null!!");
-        if (Objects.nonNull(dexKitBridge)) {
-            if (dexKitBridge.isValid())
-                return dexKitBridge;
-        }
+        return obtainInstance(settings, cachePath, cacheName, classLoader, sourceDir, dataDir, version);
+    }
 
-        close();
-        mmkvFinalPath = dataDir + mmkvPath;
-        try {
-            MMKV.initialize(mmkvFinalPath, System::loadLibrary);
-        } catch (Throwable e) {
-            isAvailable = false;
-            Log.w(TAG, "[DexkitCache]: Failed to initialize MMKV, dexkit cache is unavailable!!", e);
-        }
-        if (isAvailable) {
-            gson = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
-            mmkv = MMKV.mmkvWithID(cacheName, MMKV.MULTI_PROCESS_MODE);
-            if (mmkv.containsKey(KEY_VERSION)) {
-                int version = mmkv.getInt(KEY_VERSION, 1);
-                if (version != DexkitCache.version) {
-                    mmkv.clear();
-                    mmkv.putInt(KEY_VERSION, DexkitCache.version);
-                }
-            } else mmkv.putInt(KEY_VERSION, DexkitCache.version);
-
-            String packageInfo = PackageHelper.getPackageVersionName() + "(" + PackageHelper.getPackageVersionCode() + ")";
-            if (mmkv.containsKey(KEY_PACKAGE_INFO)) {
-                String oldInfo = mmkv.getString(KEY_PACKAGE_INFO, "unknown");
-                if (!TextUtils.equals(packageInfo, oldInfo)) {
-                    mmkv.clear();
-                    mmkv.putString(KEY_PACKAGE_INFO, packageInfo);
-                }
-            } else mmkv.putString(KEY_PACKAGE_INFO, packageInfo);
-
-            String systemVersion = Build.VERSION.INCREMENTAL;
-            if (mmkv.containsKey(KEY_SYSTEM_VERSION)) {
-                String oldVersion = mmkv.getString(KEY_SYSTEM_VERSION, "unknown");
-                if (!TextUtils.equals(systemVersion, oldVersion)) {
-                    mmkv.clear();
-                    mmkv.putString(KEY_SYSTEM_VERSION, systemVersion);
-                }
-            } else mmkv.putString(KEY_SYSTEM_VERSION, systemVersion);
-
-            if (iInitialization != null)
-                iInitialization.initialization(mmkv);
-        }
+    /**
+     * 设置缓存存储，需要在首次查找前调用，默认使用 {@link MMKVStore}
+     * <p>
+     * 不依赖 native 库的实现可以使用 {@link MappedFileStore}：
+     * <pre>{@code
+     * DexkitCache.setStoreFactory(MappedFileStore::new);
+     * }</pre>
+     */
+    public static void setStoreFactory(@NonNull IStoreFactory storeFactory) {
+        settings.storeFactory = storeFactory;
+    }
 
-        System.loadLibrary("dexkit");
-        dexKitBridge = DexKitBridge.create(classLoader, false);
+    /**
+     * 是否在打开缓存存储时一次性读取全部缓存条目，默认关闭，需要在首次查找前调用
+     * <p>
+     * 开启后全部条目会被解码到紧凑的内存表中，之后的查找无需再逐个读取缓存存储，适合每次启动都会查找大量 key 的场景。
+     * <p>
+     * 配合 {@link MappedFileStore} 使用时只需一次顺序读取。
+     */
+    public static void setSnapshotEnabled(boolean snapshotEnabled) {
+        settings.snapshotEnabled = snapshotEnabled;
+    }
 
-        return dexKitBridge;
+    /**
+     * 设置异步查找使用的线程池，默认使用与 CPU 核心数相同并行度的有界线程池
+     *
+     * @see DexkitExecutors
+     */
+    public static void setExecutor(@NonNull Executor executor) {
+        settings.executor = executor;
+    }
+
+    /**
+     * 注册查找，注册后可通过 {@link #prewarm()} 在后台预先构建缓存
+     *
+     * @param key     此缓存的唯一 key
+     * @param iDexkit dexkit 查找接口
+     */
+    public static void register(@NonNull String key, @NonNull IDexkit<?> iDexkit) {
+        settings.registry.put(key, iDexkit);
+    }
+
+    /**
+     * 注册多个查找
+     *
+     * @param iDexkits key 与 dexkit 查找接口的映射
+     */
+    public static void register(@NonNull Map<String, ? extends IDexkit<?>> iDexkits) {
+        settings.registry.putAll(iDexkits);
+    }
+
+    /**
+     * 获取不在给定集合中的缓存条目 key，即已不再使用的查找留下的缓存条目
+     *
+     * @param usedKeys 仍在使用的全部 key，可以传入注解处理器生成的 DexkitRegistry.KEYS
+     * @see DexkitCacheInstance#findUnusedKeys(Collection)
+     */
+    @NonNull
+    public static Set<String> findUnusedKeys(@NonNull Collection<String> usedKeys) {
+        return defaultInstance().findUnusedKeys(usedKeys);
+    }
+
+    /**
+     * 删除不在给定集合中的缓存条目
+     *
+     * @param usedKeys 仍在使用的全部 key，可以传入注解处理器生成的 DexkitRegistry.KEYS
+     * @return 删除的缓存条目数量
+     */
+    public static int removeUnusedKeys(@NonNull Collection<String> usedKeys) {
+        return defaultInstance().removeUnusedKeys(usedKeys);
+    }
+
+    /**
+     * 缓存因版本、软件或系统更新而失效时，是否自动在后台调用 {@link #prewarm()}
+     */
+    public static void setPrewarmOnInvalidated(boolean prewarmOnInvalidated) {
+        settings.prewarmOnInvalidated = prewarmOnInvalidated;
+    }
+
+    /**
+     * 软件更新后是否只删除依赖的 dex 发生变化的缓存条目，默认开启
+     * <p>
+     * 关闭后软件更新会删除全部缓存。
+     */
+    public static void setIncrementalInvalidation(boolean incrementalInvalidation) {
+        settings.incrementalInvalidation = incrementalInvalidation;
+    }
+
+    /**
+     * 缓存条目无法解析时是否重新查找并覆盖此条目，默认关闭
+     * <p>
+     * 关闭时将直接抛出异常。
+     */
+    public static void setSelfHealing(boolean selfHealing) {
+        settings.selfHealing = selfHealing;
+    }
+
+    /**
+     * 设置跨进程协调的等待超时，默认为 0，即不协调
+     * <p>
+     * 大于 0 时，多个进程同时未命中同一 key 时只有一个进程执行查找并写入，其余进程最多等待该时间后读取其写入的结果；
+     * 超时或执行查找的进程退出时，等待的进程会自行查找。适合目标软件的多个进程在更新后同时构建缓存的场景。
+     *
+     * @param timeout 等待超时，单位为毫秒
+     */
+    public static void setProcessLockTimeout(long timeout) {
+        if (timeout < 0)
+            throw new IllegalArgumentException("[DexkitCache]: Process lock timeout must not be negative: " + timeout);
+        settings.processLockTimeout = timeout;
+    }
+
+    /**
+     * 是否缓存没有结果的查找，默认关闭
+     * <p>
+     * 开启后，查找返回 null 或因没有结果抛出 NoResultException 时会写入一个表示不存在的缓存条目，
+     * 与其他缓存条目一样随缓存版本、软件与系统更新失效。之后对此 key 的查找只需一次缓存读取，并抛出 NoSuchElementException。
+     * <p>
+     * {@link #findOptionalMember(String, IDexkit)} 总是缓存没有结果的查找。
+     */
+    public static void setNegativeCaching(boolean negativeCaching) {
+        settings.negativeCaching = negativeCaching;
+    }
+
+    /**
+     * 设置没有结果的缓存条目的有效期，默认为 0，即只随缓存版本、软件与系统更新失效
+     * <p>
+     * 过期后会重新查找，适用于结果可能随运行时状态变化的查找。
+     *
+     * @param ttl 有效期，单位为毫秒
+     */
+    public static void setNegativeCacheTtl(long ttl) {
+        if (ttl < 0)
+            throw new IllegalArgumentException("[DexkitCache]: Negative cache ttl must not be negative: " + ttl);
+        settings.negativeCacheTtl = ttl;
+    }
+
+    /**
+     * 获取本进程中因缓存条目无法解析而重新查找的次数
+     */
+    public static int getSelfHealCount() {
+        return settings.selfHealCount.get();
+    }
+
+    /**
+     * 在后台查找全部已注册但尚未缓存的 key
+     * <p>
+     * 由 {@link DexkitQueries} 创建的查找会合并为一次批量查找，其余查找在线程池中并行执行。
+     * 预热期间对同一 key 调用 findMember 会等待正在进行的查找，而不会重复查找。
+     *
+     * @return 本次预热的查找结果
+     */
+    @NonNull
+    public static CompletableFuture<MemberResults> prewarm() {
+        return defaultInstance().prewarm();
+    }
+
+    /**
+     * 在缓存存储初始化时回调
+     * */
+    public static void setInitializationListener(IInitialization iInitialization) {
+        settings.iInitialization = iInitialization;
     }
 
     /**
@@ -199,7 +418,7 @@ public final class DexkitCache {
      */
     @NonNull
     public static <T, D> T findMember(@Nullable String key, @NonNull IDexkit<D> iDexkit) {
-        return findMember(key, classLoader, iDexkit);
+        return defaultInstance().findMember(key, iDexkit);
     }
 
     /**
@@ -209,295 +428,289 @@ public final class DexkitCache {
      * @param classLoader 指定类加载器，用于加载查找到的实例
      * @param iDexkit     dexkit 查找接口
      * @return 返回查找到的成员，可能是 Class、Method、Field
-     * @noinspection IfCanBeSwitch, unchecked
      */
     @NonNull
     public static <T, D> T findMember(@Nullable String key, @NonNull ClassLoader classLoader, @NonNull IDexkit<D> iDexkit) {
-        autoReloadIfNeed(classLoader);
-        DexKitBridge dexKitBridge = createDexkitBridge(classLoader);
-        if (!isAvailable) key = null; // 缓存不可用
-        if (key == null) {
-            try {
-                D dexkit = iDexkit.dexkit(dexKitBridge);
-                if (BaseData.class.isAssignableFrom(dexkit.getClass())) {
-                    if (dexkit instanceof ClassData classData)
-                        return (T) classData.getInstance(classLoader);
-                    else if (dexkit instanceof MethodData methodData)
-                        return (T) methodData.getMethodInstance(classLoader);
-                    else if (dexkit instanceof FieldData fieldData)
-                        return (T) fieldData.getFieldInstance(classLoader);
-                    else
-                        throw new UnexpectedException("[DexkitCache]: Unknown BaseData type: " + dexkit);
-                } else if (BaseDataList.class.isAssignableFrom(dexkit.getClass())) {
-                    var action = new Object() {
-                        public <M> T toArray(BaseDataList<?> list, Class<?> clazz) {
-                            return (T) list.stream().map((Function<Object, M>) baseData -> {
-                                try {
-                                    if (baseData instanceof ClassData classData)
-                                        return (M) classData.getInstance(classLoader);
-                                    else if (baseData instanceof MethodData methodData)
-                                        return (M) methodData.getMethodInstance(classLoader);
-                                    else if (baseData instanceof FieldData fieldData)
-                                        return (M) fieldData.getFieldInstance(classLoader);
-                                    else
-                                        throw new UnexpectedException("[DexkitCache]: Unknown BaseData type: " + baseData);
-                                } catch (ClassNotFoundException | NoSuchMethodException |
-                                         NoSuchFieldException e) {
-                                    throw new UnexpectedException(e);
-                                }
-                            }).toArray(value -> (M[]) Array.newInstance(clazz, value));
-                        }
-                    };
-                    if (dexkit instanceof ClassDataList classDataList)
-                        return action.<Class<?>>toArray(classDataList, Class.class);
-                    else if (dexkit instanceof MethodDataList methodDataList)
-                        return action.<Method>toArray(methodDataList, Method.class);
-                    else if (dexkit instanceof FieldDataList fieldDataList)
-                        return action.<Field>toArray(fieldDataList, Field.class);
-                    else
-                        throw new UnexpectedException("[DexkitCache]: Unknown BaseDataList type: " + dexkit);
-                } else
-                    throw new UnexpectedException("[DexkitCache]: Unknown return type: " + dexkit);
-            } catch (ReflectiveOperationException e) {
-                throw new UnexpectedException(e);
-            }
-        } else {
-            String cacheData = mmkv.getString(key, "");
-            if (cacheData.isEmpty()) {
-                try {
-                    D dexkit = iDexkit.dexkit(dexKitBridge);
-                    if (BaseData.class.isAssignableFrom(dexkit.getClass())) {
-                        if (dexkit instanceof ClassData classData) {
-                            mmkv.putString(key, gson.toJson(new MemberData(TYPE_CLASS, classData.toDexType().serialize())));
-                            return (T) classData.getInstance(classLoader);
-                        } else if (dexkit instanceof MethodData methodData) {
-                            mmkv.putString(key, gson.toJson(new MemberData(TYPE_METHOD, methodData.toDexMethod().serialize())));
-                            return (T) methodData.getMethodInstance(classLoader);
-                        } else if (dexkit instanceof FieldData fieldData) {
-                            mmkv.putString(key, gson.toJson(new MemberData(TYPE_FIELD, fieldData.toDexField().serialize())));
-                            return (T) fieldData.getFieldInstance(classLoader);
-                        } else {
-                            throw new UnexpectedException("[DexkitCache]: Unknown BaseData type: " + dexkit);
-                        }
-                    } else if (BaseDataList.class.isAssignableFrom(dexkit.getClass())) {
-                        String finalKey = key;
-                        var action = new Object() {
-                            final ArrayList<String> serializeList = new ArrayList<>();
-
-                            public <M> T toCachedArray(BaseDataList<?> list, Class<?> clazz) {
-                                M[] member = list.stream().map((Function<Object, M>) baseData -> {
-                                    try {
-                                        if (baseData instanceof ClassData classData) {
-                                            serializeList.add(classData.toDexType().serialize());
-                                            return (M) classData.getInstance(classLoader);
-                                        } else if (baseData instanceof MethodData methodData) {
-                                            serializeList.add(methodData.toDexMethod().serialize());
-                                            return (M) methodData.getMethodInstance(classLoader);
-                                        } else if (baseData instanceof FieldData fieldData) {
-                                            serializeList.add(fieldData.toDexField().serialize());
-                                            return (M) fieldData.getFieldInstance(classLoader);
-                                        } else
-                                            throw new UnexpectedException("[DexkitCache]: Unknown BaseData Type: " + baseData);
-                                    } catch (NoSuchFieldException | NoSuchMethodException |
-                                             ClassNotFoundException e) {
-                                        throw new UnexpectedException(e);
-                                    }
-                                }).toArray(value -> (M[]) Array.newInstance(clazz, value));
-                                if (list instanceof FieldDataList)
-                                    mmkv.putString(finalKey, gson.toJson(new MemberData(TYPE_FIELD, serializeList)));
-                                else if (list instanceof MethodDataList)
-                                    mmkv.putString(finalKey, gson.toJson(new MemberData(TYPE_METHOD, serializeList)));
-                                else if (list instanceof ClassDataList)
-                                    mmkv.putString(finalKey, gson.toJson(new MemberData(TYPE_CLASS, serializeList)));
-                                return (T) member;
-                            }
-                        };
-
-                        if (dexkit instanceof ClassDataList classDataList)
-                            return action.<Class<?>>toCachedArray(classDataList, Class.class);
-                        else if (dexkit instanceof MethodDataList methodDataList)
-                            return action.<Method>toCachedArray(methodDataList, Method.class);
-                        else if (dexkit instanceof FieldDataList fieldDataList)
-                            return action.<Field>toCachedArray(fieldDataList, Field.class);
-                        else
-                            throw new UnexpectedException("[DexkitCache]: Unknown BaseDataList type: " + dexkit);
-                    } else
-                        throw new UnexpectedException("[DexkitCache]: Unknown return type: " + dexkit);
-                } catch (ReflectiveOperationException e) {
-                    throw new UnexpectedException(e);
-                }
-            } else {
-                MemberData data = gson.fromJson(cacheData, new TypeToken<MemberData>() {
-                }.getType());
-                try {
-                    if (!data.serialize.isEmpty()) {
-                        switch (data.type) {
-                            case TYPE_CLASS -> {
-                                return (T) new DexClass(data.serialize).getInstance(classLoader);
-                            }
-                            case TYPE_METHOD -> {
-                                return (T) new DexMethod(data.serialize).getMethodInstance(classLoader);
-                            }
-                            case TYPE_FIELD -> {
-                                return (T) new DexField(data.serialize).getFieldInstance(classLoader);
-                            }
-                            default ->
-                                throw new UnexpectedException("[DexkitCache]: Unknown MemberData type: " + data.type);
-                        }
-                    } else if (!data.serializeList.isEmpty()) {
-                        var action = new Object() {
-                            public <M> T toInstance(ArrayList<String> list, Class<?> clazz) {
-                                return (T) list.stream().map(descriptor -> {
-                                    try {
-                                        switch (data.type) {
-                                            case TYPE_CLASS -> {
-                                                return (M) new DexClass(descriptor).getInstance(classLoader);
-                                            }
-                                            case TYPE_METHOD -> {
-                                                return (M) new DexMethod(descriptor).getMethodInstance(classLoader);
-                                            }
-                                            case TYPE_FIELD -> {
-                                                return (M) new DexField(descriptor).getFieldInstance(classLoader);
-                                            }
-                                            default ->
-                                                throw new UnexpectedException("[DexkitCache]: Unknown MemberData type: " + data.type);
-                                        }
-                                    } catch (ClassNotFoundException | NoSuchMethodException |
-                                             NoSuchFieldException e) {
-                                        throw new UnexpectedException(e);
-                                    }
-                                }).toArray(value -> (M[]) Array.newInstance(clazz, value));
-                            }
-                        };
-                        switch (data.type) {
-                            case TYPE_CLASS -> {
-                                return action.<Class<?>>toInstance(data.serializeList, Class.class);
-                            }
-                            case TYPE_METHOD -> {
-                                return action.<Method>toInstance(data.serializeList, Method.class);
-                            }
-                            case TYPE_FIELD -> {
-                                return action.<Field>toInstance(data.serializeList, Field.class);
-                            }
-                            default ->
-                                throw new UnexpectedException("[DexkitCache]: Unknown MemberData type: " + data.type);
-                        }
-                    } else {
-                        throw new UnexpectedException("[DexkitCache]: Illegal MemberData: " + data);
-                    }
-                } catch (ClassNotFoundException | NoSuchMethodException | NoSuchFieldException e) {
-                    throw new UnexpectedException(e);
-                }
-            }
-        }
+        return instanceFor(classLoader).findMember(key, iDexkit);
     }
 
     /**
-     * 关闭 Dexkit，并清理资源
+     * 查找可能不存在的成员，查找没有结果时返回空的 Optional
      * <p>
-     * 强烈建议在 try-catch-finally 中的 finally 块中调用！
+     * 没有结果的查找同样会被缓存，目标软件的当前版本中不存在的成员之后只需一次缓存读取。
+     *
+     * @param key     此缓存的唯一 key，如果为 null 则不启用缓存
+     * @param iDexkit dexkit 查找接口
+     * @return 返回查找到的成员，可能是 Class、Method、Field
+     * @see #setNegativeCacheTtl(long)
+     */
+    @NonNull
+    public static <T, D> Optional<T> findOptionalMember(@Nullable String key, @NonNull IDexkit<D> iDexkit) {
+        return defaultInstance().findOptionalMember(key, iDexkit);
+    }
+
+    /**
+     * 查找可能不存在的成员，查找没有结果时返回空的 Optional
+     *
+     * @param key         此缓存的唯一 key，如果为 null 则不启用缓存
+     * @param classLoader 指定类加载器，用于加载查找到的实例
+     * @param iDexkit     dexkit 查找接口
+     * @return 返回查找到的成员，可能是 Class、Method、Field
+     */
+    @NonNull
+    public static <T, D> Optional<T> findOptionalMember(@Nullable String key, @NonNull ClassLoader classLoader, @NonNull IDexkit<D> iDexkit) {
+        return instanceFor(classLoader).findOptionalMember(key, iDexkit);
+    }
+
+    /**
+     * 查找成员列表，列表中的元素在首次访问时才会解析
+     * <p>
+     * 适用于对应大量 Class、Method、Field 但只使用其中一部分的 key，无需像 {@link #findMember(String, IDexkit)} 一样解析全部成员并创建数组。
+     *
+     * @param key     此缓存的唯一 key，如果为 null 则不启用缓存
+     * @param iDexkit dexkit 查找接口
+     * @return 按需解析的成员列表
+     */
+    @NonNull
+    public static <T, D> LazyMemberList<T> findMemberList(@Nullable String key, @NonNull IDexkit<D> iDexkit) {
+        return defaultInstance().findMemberList(key, iDexkit);
+    }
+
+    /**
+     * 查找成员列表，列表中的元素在首次访问时才会解析
+     *
+     * @param key         此缓存的唯一 key，如果为 null 则不启用缓存
+     * @param classLoader 指定类加载器，用于加载查找到的实例
+     * @param iDexkit     dexkit 查找接口
+     * @return 按需解析的成员列表
+     */
+    @NonNull
+    public static <T, D> LazyMemberList<T> findMemberList(@Nullable String key, @NonNull ClassLoader classLoader, @NonNull IDexkit<D> iDexkit) {
+        return instanceFor(classLoader).findMemberList(key, iDexkit);
+    }
+
+    /**
+     * 异步查找成员
+     * <p>
+     * 缓存命中时直接返回已完成的 CompletableFuture，不会切换线程；
+     * 未命中时在 {@link #setExecutor(Executor)} 设置的线程池中查找，多个查找可共享同一个 DexKitBridge 并行执行。
+     *
+     * @param key     此缓存的唯一 key，如果为 null 则不启用缓存
+     * @param iDexkit dexkit 查找接口
+     * @return 返回查找到的成员，可能是 Class、Method、Field
+     */
+    @NonNull
+    public static <T, D> CompletableFuture<T> findMemberAsync(@Nullable String key, @NonNull IDexkit<D> iDexkit) {
+        return defaultInstance().findMemberAsync(key, iDexkit);
+    }
+
+    /**
+     * 异步查找成员
+     *
+     * @param key         此缓存的唯一 key，如果为 null 则不启用缓存
+     * @param classLoader 指定类加载器，用于加载查找到的实例
+     * @param iDexkit     dexkit 查找接口
+     * @return 返回查找到的成员，可能是 Class、Method、Field
+     */
+    @NonNull
+    public static <T, D> CompletableFuture<T> findMemberAsync(@Nullable String key, @NonNull ClassLoader classLoader, @NonNull IDexkit<D> iDexkit) {
+        return instanceFor(classLoader).findMemberAsync(key, iDexkit);
+    }
+
+    /**
+     * 在时限内查找成员
+     * <p>
+     * 适合在 hook 回调等不能长时间阻塞的线程中使用，避免耗时的 dexkit 查找触发目标软件的 ANR。
+     * 首次打开与校验缓存存储同样计入时限，超出时限时返回 fallback，查找继续在后台执行并写入缓存，之后的调用或下次启动即可命中。
+     *
+     * @param key      此缓存的唯一 key，如果为 null 则不启用缓存
+     * @param iDexkit  dexkit 查找接口
+     * @param timeout  等待查找的时限，单位为毫秒
+     * @param fallback 超出时限时返回的值，可以为 null
+     * @return 返回查找到的成员，可能是 Class、Method、Field；超出时限时返回 fallback
+     */
+    @Nullable
+    public static <T, D> T findMember(@Nullable String key, @NonNull IDexkit<D> iDexkit, long timeout, @Nullable T fallback) {
+        return defaultInstance().findMember(key, iDexkit, timeout, fallback);
+    }
+
+    /**
+     * 在时限内查找成员
+     *
+     * @param key         此缓存的唯一 key，如果为 null 则不启用缓存
+     * @param classLoader 指定类加载器，用于加载查找到的实例
+     * @param iDexkit     dexkit 查找接口
+     * @param timeout     等待查找的时限，单位为毫秒
+     * @param fallback    超出时限时返回的值，可以为 null
+     * @return 返回查找到的成员，可能是 Class、Method、Field；超出时限时返回 fallback
+     */
+    @Nullable
+    public static <T, D> T findMember(@Nullable String key, @NonNull ClassLoader classLoader, @NonNull IDexkit<D> iDexkit, long timeout, @Nullable T fallback) {
+        return instanceFor(classLoader).findMember(key, iDexkit, timeout, fallback);
+    }
+
+    /**
+     * 批量查找成员
+     * <p>
+     * 先一次性从缓存中读取全部 key，只有未命中的查找才会在同一个 DexKitBridge 上执行，
+     * 其中由 {@link DexkitQueries} 创建的字符串查找会被合并为 dexkit 的批量字符串查找，
+     * 最后统一写入所有新的缓存条目。
+     * <p>
+     * 单个 key 的失败不会抛出，而是记录在返回结果中。
+     *
+     * @param iDexkits key 与 dexkit 查找接口的映射
+     * @return 查找结果
+     */
+    @NonNull
+    public static MemberResults findMembers(@NonNull Map<String, ? extends IDexkit<?>> iDexkits) {
+        return defaultInstance().findMembers(iDexkits);
+    }
+
+    /**
+     * 批量查找成员
+     *
+     * @param classLoader 指定类加载器，用于加载查找到的实例
+     * @param iDexkits    key 与 dexkit 查找接口的映射
+     * @return 查找结果
+     */
+    @NonNull
+    public static MemberResults findMembers(@NonNull ClassLoader classLoader, @NonNull Map<String, ? extends IDexkit<?>> iDexkits) {
+        return instanceFor(classLoader).findMembers(iDexkits);
+    }
+
+    /**
+     * 导出默认实例的全部缓存条目为缓存包
+     *
+     * @return 导出的条目数量
+     * @see DexkitCacheInstance#exportBundle(OutputStream)
+     */
+    public static int exportBundle(@NonNull OutputStream outputStream) throws IOException {
+        return defaultInstance().exportBundle(outputStream);
+    }
+
+    /**
+     * 导出默认实例的全部缓存条目到文件
+     *
+     * @return 导出的条目数量
+     */
+    public static int exportBundle(@NonNull String path) throws IOException {
+        return defaultInstance().exportBundle(path);
+    }
+
+    /**
+     * 导入预先构建的缓存包，缓存版本与 apk 指纹均与当前一致时，缓存包中的 key 无需创建 DexKitBridge 即可命中
      * <p>
-     * 尽量避免 dexkit 在使用后未被关闭！
+     * 应在首次查找前调用，可以从模块的 asset 中读取。
+     *
+     * @return 缓存包是否适用于当前的 apk 并已导入
+     * @see DexkitCacheInstance#importBundle(InputStream)
+     */
+    public static boolean importBundle(@NonNull InputStream inputStream) throws IOException {
+        return defaultInstance().importBundle(inputStream);
+    }
+
+    /**
+     * 从文件导入预先构建的缓存包
+     *
+     * @return 缓存包是否适用于当前的 apk 并已导入
+     */
+    public static boolean importBundle(@NonNull String path) throws IOException {
+        return defaultInstance().importBundle(path);
+    }
+
+    /**
+     * 释放全部实例中 DexKitBridge 占用的 native 内存，之后的查找会按需重新创建
+     * <p>
+     * 缓存存储与已解析的成员在进程内保持可用，因此调用后无需重新打开缓存与检查版本。
+     * <p>
+     * 推荐使用 {@link #openSession()} 代替手动调用，尽量避免 dexkit 在使用后未被释放！
+     * <p>
+     * 会等待其他线程中正在进行的查找完成，不能在 {@link IDexkit#dexkit(org.luckypray.dexkit.DexKitBridge)} 中调用。
      */
     public static void close() {
-        if (Objects.nonNull(dexKitBridge))
-            dexKitBridge.close();
-        dexKitBridge = null;
-
-        if (isAvailable) {
-            if (mmkv != null)
-                mmkv.close();
-            mmkv = null;
-            gson = null;
+        List<DexkitCacheInstance> instances;
+        synchronized (DexkitCache.instances) {
+            instances = new ArrayList<>(DexkitCache.instances.values());
         }
+        instances.forEach(DexkitCacheInstance::close);
     }
 
-    private static void autoReloadIfNeed(@NonNull ClassLoader classLoader) {
-        if (!Objects.equals(DexkitCache.classLoader, classLoader)) {
-            DexkitCache.classLoader = classLoader;
-            close();
-        }
+    /**
+     * 在默认实例上开始 dexkit 会话，会话期间 DexKitBridge 不会被释放
+     * <p>
+     * 最后一个会话结束后会释放 DexKitBridge，设置了空闲超时时会在空闲超时后释放。
+     */
+    @NonNull
+    public static DexkitSession openSession() {
+        return defaultInstance().openSession();
     }
 
-    private static final class MemberData {
-        @NonNull
-        public String type;
-        public String serialize = "";
-        public ArrayList<String> serializeList = new ArrayList<>();
+    /**
+     * 是否在 init 时根据 apk 路径于后台提前创建 DexKitBridge，默认关闭，需要在 init 前调用
+     * <p>
+     * dex 解析与 hook 的其余初始化并行进行，首次未命中时无需再等待完整的解析。
+     * 适合缓存经常失效或首次启动需要大量查找的场景；缓存全部命中时会浪费解析开销与 native 内存，
+     * 可配合 {@link #setBridgeIdleTimeout(long)} 在空闲后释放。
+     * <p>
+     * 仅解析 sourceDir 指向的 apk，查找的成员位于 split apk 中时不应开启。
+     *
+     * @see DexkitCacheInstance#prebuildBridge()
+     */
+    public static void setPrebuildBridge(boolean prebuildBridge) {
+        settings.prebuildBridge = prebuildBridge;
+    }
 
-        public MemberData(@NonNull String type, @NonNull String serialize) {
-            this.type = type;
-            this.serialize = serialize;
-        }
+    /**
+     * 立即在后台根据 apk 路径提前创建 DexKitBridge
+     *
+     * @see #setPrebuildBridge(boolean)
+     */
+    public static void prebuildBridge() {
+        defaultInstance().prebuildBridge();
+    }
 
-        public MemberData(@NonNull String type, @NonNull ArrayList<String> serializeList) {
-            this.type = type;
-            this.serializeList = serializeList;
-        }
+    /**
+     * 设置 DexKitBridge 的空闲超时，默认为 0
+     * <p>
+     * 大于 0 时，DexKitBridge 在没有会话且超过该时间未被使用后会被释放；
+     * 为 0 时，最后一个会话结束后立即释放，不使用会话时保留到调用 {@link #close()}。
+     *
+     * @param idleTimeout 空闲超时，单位为毫秒
+     */
+    public static void setBridgeIdleTimeout(long idleTimeout) {
+        if (idleTimeout < 0)
+            throw new IllegalArgumentException("[DexkitCache]: Idle timeout must not be negative: " + idleTimeout);
+        settings.bridgeIdleTimeout = idleTimeout;
+    }
 
-        @Override
+    /**
+     * LRU 中实例的 key，类加载器按引用区分
+     */
+    private static final class Target {
+        @NonNull
+        private final ClassLoader classLoader;
         @NonNull
-        public String toString() {
-            return "MemberData{" +
-                "type='" + type + '\'' +
-                ", serialize='" + serialize + '\'' +
-                ", serializeList=" + serializeList +
-                '}';
+        private final String sourceDir;
+        @NonNull
+        private final String cacheName;
+
+        private Target(@NonNull ClassLoader classLoader, @NonNull String sourceDir, @NonNull String cacheName) {
+            this.classLoader = classLoader;
+            this.sourceDir = sourceDir;
+            this.cacheName = cacheName;
         }
 
         @Override
         public boolean equals(Object o) {
-            if (!(o instanceof MemberData that)) return false;
-            return Objects.equals(type, that.type) &&
-                Objects.equals(serialize, that.serialize) &&
-                Objects.equals(serializeList, that.serializeList);
+            if (!(o instanceof Target that)) return false;
+            return classLoader == that.classLoader &&
+                sourceDir.equals(that.sourceDir) &&
+                cacheName.equals(that.cacheName);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(type, serialize, serializeList);
-        }
-    }
-
-    private static class PackageHelper {
-        private static final Object pkg;
-        private static final Field mVersionNameField;
-        private static final Field mVersionCodeField;
-
-        static {
-            try {
-                @SuppressLint("PrivateApi")
-                Class<?> packageParserClass = Class.forName("android.content.pm.PackageParser");
-                Method parsePackageMethod = packageParserClass.getDeclaredMethod("parsePackage", File.class, int.class);
-                parsePackageMethod.setAccessible(true);
-                Object packageParser = packageParserClass.getDeclaredConstructor().newInstance();
-                pkg = parsePackageMethod.invoke(packageParser, new File(sourceDir), 0);
-                assert pkg != null;
-                mVersionNameField = pkg.getClass().getDeclaredField("mVersionName");
-                mVersionNameField.setAccessible(true);
-                mVersionCodeField = pkg.getClass().getDeclaredField("mVersionCode");
-                mVersionCodeField.setAccessible(true);
-            } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException |
-                     InstantiationException | InvocationTargetException | NoSuchFieldException e) {
-                throw new UnexpectedException(e);
-            }
-        }
-
-        @NonNull
-        public static String getPackageVersionName() {
-            try {
-                return ((String) Optional.ofNullable(mVersionNameField.get(pkg)).orElse("unknown")).trim();
-            } catch (IllegalAccessException e) {
-                throw new UnexpectedException(e);
-            }
-        }
-
-        public static int getPackageVersionCode() {
-            try {
-                return (int) Optional.ofNullable(mVersionCodeField.get(pkg)).orElse(-1);
-            } catch (IllegalAccessException e) {
-                throw new UnexpectedException(e);
-            }
+            return Objects.hash(System.identityHashCode(classLoader), sourceDir, cacheName);
         }
     }
 }
@@ -0,0 +1,1875 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import android.os.Build;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.luckypray.dexkit.DexKitBridge;
+import org.luckypray.dexkit.exceptions.NoResultException;
+import org.luckypray.dexkit.result.BaseDataList;
+import org.luckypray.dexkit.result.ClassData;
+import org.luckypray.dexkit.result.ClassDataList;
+import org.luckypray.dexkit.result.FieldData;
+import org.luckypray.dexkit.result.FieldDataList;
+import org.luckypray.dexkit.result.MethodData;
+import org.luckypray.dexkit.result.MethodDataList;
+import org.luckypray.dexkit.result.base.BaseData;
+import org.luckypray.dexkit.wrap.DexClass;
+import org.luckypray.dexkit.wrap.DexField;
+import org.luckypray.dexkit.wrap.DexMethod;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * 绑定到单个类加载器、apk 与缓存名称的 Dexkit 缓存实例
+ * <p>
+ * 每个实例拥有独立的 DexKitBridge、成员缓存与会话，相同缓存目录与名称的实例共用同一个缓存存储。
+ * 可通过 {@link DexkitCache#getInstance(String, ClassLoader, String, String)} 获取，
+ * {@link DexkitCache} 的静态方法使用的是默认实例。
+ * <p>
+ * 可在多个线程中同时使用，不同 key 的查找并行执行，同一 key 的并发未命中只会执行一次查找。
+ *
+ * @author 焕晨HChen
+ * @noinspection FieldCanBeLocal, unused
+ */
+public final class DexkitCacheInstance {
+    private static final String TAG = "DexkitCache";
+    private static final long BRIDGE_RELEASE_RETRY_DELAY = 100;
+    private static final String KEY_VERSION = "version";
+    private static final String KEY_APK_STAT = "apk_stat";
+    private static final String KEY_APK_FINGERPRINT = "apk_fingerprint";
+    private static final String KEY_SYSTEM_VERSION = "system_version";
+    private static final int DEX_INDEX_NONE = 0;
+    private static final int DEX_INDEX_BUILDING = 1;
+    private static final int DEX_INDEX_FAILED = 2;
+    private static volatile Executor defaultExecutor = null;
+    private static volatile ScheduledExecutorService scheduler = null;
+    // 提前创建 DexKitBridge 与建立 dex 索引使用的独立线程，避免与查找线程池互相等待
+    private static volatile ScheduledExecutorService bridgeBuilder = null;
+    // 缓存存储路径与名称到共用缓存存储的映射
+    private static final HashMap<String, SharedStore> sharedStores = new HashMap<>();
+    @NonNull
+    final Settings settings;
+    @NonNull
+    final String cachePath;
+    @NonNull
+    final String cacheName;
+    @NonNull
+    final ClassLoader classLoader;
+    @NonNull
+    final String sourceDir;
+    @NonNull
+    final String dataDir;
+    final int version;
+    private volatile SharedStore sharedStore = null;
+    private volatile IDexkitStore store = null;
+    private volatile MemberSnapshot snapshot = null;
+    private volatile DexKitBridge dexKitBridge = null;
+    // 正在后台提前创建的 DexKitBridge，由 bridgeLock 保护写入
+    private volatile CompletableFuture<Void> bridgeBuild = null;
+    // sessionCount 与 bridgeRelease 由 bridgeLock 保护
+    private int sessionCount = 0;
+    private volatile ScheduledFuture<?> bridgeRelease = null;
+    private volatile long bridgeLastUsed = 0;
+    private volatile boolean isAvailable = true;
+    // dex 索引在后台建立，建立完成前写入的条目暂不记录依赖，由 pendingDependencies 记录并在建立后补充
+    private volatile DexIndex dexIndex = null;
+    // dexIndexState 由 dexIndexLock 保护
+    private int dexIndexState = DEX_INDEX_NONE;
+    private final Object dexIndexLock = new Object();
+    private final Set<String> pendingDependencies = ConcurrentHashMap.newKeySet();
+    private final MemberCache memberCache = new MemberCache();
+    // findMemberList 返回的按需解析列表
+    private final MemberCache memberListCache = new MemberCache();
+    private final MemberResolver memberResolver = new MemberResolver();
+    // 查找期间持有读锁，close() 与释放实例时持有写锁
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private final Object storeLock = new Object();
+    private final Object bridgeLock = new Object();
+    // 正在查找中的 key，同一 key 的并发未命中共享同一次查找
+    private final ConcurrentHashMap<String, CompletableFuture<MemberRecord>> inFlight = new ConcurrentHashMap<>();
+
+    DexkitCacheInstance(@NonNull Settings settings, @NonNull String cachePath, @NonNull String cacheName, @NonNull ClassLoader classLoader,
+                        @NonNull String sourceDir, @NonNull String dataDir, int version) {
+        this.settings = settings;
+        this.cachePath = cachePath;
+        this.cacheName = cacheName;
+        this.classLoader = classLoader;
+        this.sourceDir = sourceDir;
+        this.dataDir = dataDir;
+        this.version = version;
+    }
+
+    /**
+     * 获取此实例绑定的类加载器
+     */
+    @NonNull
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * 获取此实例使用的缓存名称
+     */
+    @NonNull
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * 设置缓存存储，需要在首次查找前调用，默认使用 {@link MMKVStore}
+     * <p>
+     * 缓存存储由相同缓存目录与名称的实例共用，只有首个打开它的实例的设置生效。
+     *
+     * @see DexkitCache#setStoreFactory(IStoreFactory)
+     */
+    public void setStoreFactory(@NonNull IStoreFactory storeFactory) {
+        settings.storeFactory = storeFactory;
+    }
+
+    /**
+     * 是否在打开缓存存储时一次性读取全部缓存条目，默认关闭，需要在首次查找前调用
+     *
+     * @see DexkitCache#setSnapshotEnabled(boolean)
+     */
+    public void setSnapshotEnabled(boolean snapshotEnabled) {
+        settings.snapshotEnabled = snapshotEnabled;
+    }
+
+    /**
+     * 设置异步查找使用的线程池，默认使用所有实例共用的有界线程池
+     *
+     * @see DexkitExecutors
+     */
+    public void setExecutor(@NonNull Executor executor) {
+        settings.executor = executor;
+    }
+
+    @NonNull
+    Executor getExecutor() {
+        Executor executor = settings.executor;
+        if (executor != null) return executor;
+
+        executor = defaultExecutor;
+        if (executor == null) {
+            synchronized (DexkitCacheInstance.class) {
+                executor = defaultExecutor;
+                if (executor == null)
+                    defaultExecutor = executor = DexkitExecutors.newBoundedExecutor(Runtime.getRuntime().availableProcessors());
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 注册查找，注册后可通过 {@link #prewarm()} 在后台预先构建缓存
+     *
+     * @param key     此缓存的唯一 key
+     * @param iDexkit dexkit 查找接口
+     */
+    public void register(@NonNull String key, @NonNull IDexkit<?> iDexkit) {
+        settings.registry.put(key, iDexkit);
+    }
+
+    /**
+     * 注册多个查找
+     *
+     * @param iDexkits key 与 dexkit 查找接口的映射
+     */
+    public void register(@NonNull Map<String, ? extends IDexkit<?>> iDexkits) {
+        settings.registry.putAll(iDexkits);
+    }
+
+    /**
+     * 缓存因版本、软件或系统更新而失效时，是否自动在后台调用 {@link #prewarm()}
+     */
+    public void setPrewarmOnInvalidated(boolean prewarmOnInvalidated) {
+        settings.prewarmOnInvalidated = prewarmOnInvalidated;
+    }
+
+    /**
+     * 软件更新后是否只删除依赖的 dex 发生变化的缓存条目，默认开启
+     * <p>
+     * 关闭后软件更新会删除全部缓存。
+     */
+    public void setIncrementalInvalidation(boolean incrementalInvalidation) {
+        settings.incrementalInvalidation = incrementalInvalidation;
+    }
+
+    /**
+     * 缓存条目无法解析时是否重新查找并覆盖此条目，默认关闭
+     * <p>
+     * 关闭时将直接抛出异常。
+     */
+    public void setSelfHealing(boolean selfHealing) {
+        settings.selfHealing = selfHealing;
+    }
+
+    /**
+     * 设置跨进程协调的等待超时，默认为 0，即不协调
+     *
+     * @see DexkitCache#setProcessLockTimeout(long)
+     */
+    public void setProcessLockTimeout(long timeout) {
+        if (timeout < 0)
+            throw new IllegalArgumentException("[DexkitCache]: Process lock timeout must not be negative: " + timeout);
+        settings.processLockTimeout = timeout;
+    }
+
+    /**
+     * 是否缓存没有结果的查找，默认关闭
+     *
+     * @see DexkitCache#setNegativeCaching(boolean)
+     */
+    public void setNegativeCaching(boolean negativeCaching) {
+        settings.negativeCaching = negativeCaching;
+    }
+
+    /**
+     * 设置没有结果的缓存条目的有效期，默认为 0，即不过期
+     *
+     * @see DexkitCache#setNegativeCacheTtl(long)
+     */
+    public void setNegativeCacheTtl(long ttl) {
+        if (ttl < 0)
+            throw new IllegalArgumentException("[DexkitCache]: Negative cache ttl must not be negative: " + ttl);
+        settings.negativeCacheTtl = ttl;
+    }
+
+    /**
+     * 获取因缓存条目无法解析而重新查找的次数，共用设置的实例共用此计数
+     */
+    public int getSelfHealCount() {
+        return settings.selfHealCount.get();
+    }
+
+    /**
+     * 在后台查找全部已注册但尚未缓存的 key
+     * <p>
+     * 由 {@link DexkitQueries} 创建的查找会合并为一次批量查找，其余查找在线程池中并行执行。
+     * 预热期间对同一 key 调用 findMember 会等待正在进行的查找，而不会重复查找。
+     *
+     * @return 本次预热的查找结果
+     */
+    @NonNull
+    public CompletableFuture<MemberResults> prewarm() {
+        Executor executor = getExecutor();
+        Map<String, IDexkit<?>> iDexkits = new LinkedHashMap<>(settings.registry);
+
+        return CompletableFuture.supplyAsync(() -> {
+            Map<String, IDexkit<?>> batchable = new LinkedHashMap<>();
+            List<CompletableFuture<MemberResults>> futures = new ArrayList<>();
+            iDexkits.forEach((key, iDexkit) -> {
+                if (isCached(key)) return;
+
+                if (iDexkit instanceof DexkitQueries.UsingStringsQuery<?>)
+                    batchable.put(key, iDexkit);
+                else
+                    futures.add(CompletableFuture.supplyAsync(() -> findMembers(Collections.singletonMap(key, iDexkit)), executor));
+            });
+            if (!batchable.isEmpty())
+                futures.add(CompletableFuture.supplyAsync(() -> findMembers(batchable), executor));
+            return futures;
+        }, executor).thenCompose(futures ->
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> {
+                MemberResults results = new MemberResults();
+                futures.forEach(future -> results.putAll(future.join()));
+                return results;
+            })
+        );
+    }
+
+    private boolean isCached(@NonNull String key) {
+        stateLock.readLock().lock();
+        try {
+            initStoreIfNeed();
+            return isAvailable && store.contains(key);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 在缓存存储初始化时回调
+     * */
+    public void setInitializationListener(IInitialization iInitialization) {
+        settings.iInitialization = iInitialization;
+    }
+
+    private void initStoreIfNeed() {
+        if (!isAvailable || Objects.nonNull(store))
+            return;
+
+        synchronized (storeLock) {
+            if (isAvailable && Objects.isNull(store))
+                initStore(null);
+        }
+    }
+
+    /**
+     * @param bundle 需要在打开时导入的缓存包
+     */
+    private void initStore(@Nullable DexkitBundle bundle) {
+        String storePath = dataDir + cachePath;
+        SharedStore shared = acquireStore(storePath, cacheName);
+        synchronized (shared) {
+            if (Objects.isNull(shared.store))
+                openStore(shared, storePath, bundle);
+            else if (bundle != null)
+                seedBundle(shared.store, shared.snapshot, bundle);
+            if (Objects.nonNull(shared.store)) {
+                sharedStore = shared;
+                snapshot = shared.snapshot;
+                store = shared.store;
+                return;
+            }
+        }
+        releaseStore(shared);
+    }
+
+    /**
+     * 打开缓存存储并检查版本，同一缓存存储只由首个使用它的实例打开一次，需要持有 shared 的锁
+     */
+    private void openStore(@NonNull SharedStore shared, @NonNull String storePath, @Nullable DexkitBundle bundle) {
+        IDexkitStore store = null;
+        long start = DexkitMetrics.begin(DexkitMetrics.Stage.STORE_INIT);
+        try {
+            store = settings.storeFactory.create(storePath, cacheName);
+        } catch (Throwable e) {
+            isAvailable = false;
+            Log.w(TAG, "[DexkitCache]: Failed to initialize cache store, dexkit cache is unavailable!!", e);
+        } finally {
+            DexkitMetrics.end(DexkitMetrics.Stage.STORE_INIT, null, start);
+        }
+        if (isAvailable) {
+            boolean invalidated;
+            start = DexkitMetrics.begin(DexkitMetrics.Stage.VALIDATE);
+            try {
+                invalidated = validateStore(store);
+            } finally {
+                DexkitMetrics.end(DexkitMetrics.Stage.VALIDATE, null, start);
+            }
+
+            IInitialization iInitialization = settings.iInitialization;
+            if (iInitialization != null)
+                iInitialization.initialization(store);
+            if (bundle != null)
+                seedBundle(store, null, bundle); // 先于快照与预热写入，命中的 key 无需创建 DexKitBridge
+            if (settings.snapshotEnabled) {
+                start = DexkitMetrics.begin(DexkitMetrics.Stage.SNAPSHOT);
+                try {
+                    shared.snapshot = MemberSnapshot.load(store, DexkitCacheInstance::isMarkerKey);
+                } finally {
+                    DexkitMetrics.end(DexkitMetrics.Stage.SNAPSHOT, null, start);
+                }
+            }
+            shared.store = store;
+
+            if (invalidated && settings.prewarmOnInvalidated && !settings.registry.isEmpty())
+                prewarm();
+        }
+    }
+
+    /**
+     * 导出全部缓存条目为缓存包，可随模块一同分发并在首次启动时通过 {@link #importBundle(InputStream)} 导入
+     * <p>
+     * 缓存包记录当前的缓存版本与 apk 指纹，只对相同版本的目标软件有效。
+     *
+     * @return 导出的条目数量
+     */
+    public int exportBundle(@NonNull OutputStream outputStream) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        String fingerprint;
+        stateLock.readLock().lock();
+        try {
+            initStoreIfNeed();
+            if (!isAvailable)
+                throw new IOException("[DexkitCache]: Cache store is unavailable!!");
+
+            fingerprint = store.getString(KEY_APK_FINGERPRINT);
+            if (fingerprint == null)
+                fingerprint = ApkFingerprint.fingerprint(sourceDir);
+            store.forEach((key, value) -> {
+                if (isMarkerKey(key) || !MemberCodec.isBinary(value)) return;
+
+                byte[] bytes = new byte[value.remaining()];
+                value.get(bytes);
+                entries.put(key, bytes);
+            });
+        } finally {
+            stateLock.readLock().unlock();
+        }
+
+        new DexkitBundle(version, fingerprint, entries).write(outputStream);
+        return entries.size();
+    }
+
+    /**
+     * 导出全部缓存条目到文件
+     *
+     * @see #exportBundle(OutputStream)
+     */
+    public int exportBundle(@NonNull String path) throws IOException {
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(path))) {
+            return exportBundle(outputStream);
+        }
+    }
+
+    /**
+     * 导入缓存包，只有缓存版本与 apk 指纹均与当前一致时才会写入，已存在的缓存条目不会被覆盖
+     * <p>
+     * 导入不会创建 DexKitBridge，在首次查找前导入时，缓存包中的 key 会像已构建的缓存一样直接命中。
+     * 模块中的 asset 可以通过模块的 AssetManager 或类加载器读取：
+     * <pre>{@code
+     * try (InputStream inputStream = moduleClassLoader.getResourceAsStream("assets/dexkit_cache.bundle")) {
+     *     DexkitCache.importBundle(inputStream);
+     * }
+     * }</pre>
+     *
+     * @return 缓存包是否适用于当前的 apk 并已导入
+     */
+    public boolean importBundle(@NonNull InputStream inputStream) throws IOException {
+        DexkitBundle bundle = DexkitBundle.read(inputStream);
+        stateLock.readLock().lock();
+        try {
+            synchronized (storeLock) {
+                if (isAvailable && Objects.isNull(store))
+                    initStore(bundle);
+                else if (isAvailable)
+                    seedBundle(store, snapshot, bundle);
+            }
+            return isAvailable && bundle.matches(version, store.getString(KEY_APK_FINGERPRINT));
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从文件导入缓存包
+     *
+     * @see #importBundle(InputStream)
+     */
+    public boolean importBundle(@NonNull String path) throws IOException {
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(path))) {
+            return importBundle(inputStream);
+        }
+    }
+
+    /**
+     * 获取不在给定集合中的缓存条目 key，即已不再使用的查找留下的缓存条目
+     * <p>
+     * 可以传入注解处理器生成的 DexkitRegistry.KEYS。只统计成员缓存条目，
+     * {@link IInitialization} 中写入的字符串不会计入。
+     *
+     * @param usedKeys 仍在使用的全部 key
+     */
+    @NonNull
+    public Set<String> findUnusedKeys(@NonNull Collection<String> usedKeys) {
+        Set<String> used = usedKeys instanceof Set<String> set ? set : new HashSet<>(usedKeys);
+        Set<String> unusedKeys = new TreeSet<>();
+        stateLock.readLock().lock();
+        try {
+            initStoreIfNeed();
+            if (!isAvailable) return unusedKeys;
+
+            store.forEach((key, value) -> {
+                if (!isMarkerKey(key) && !used.contains(key) && MemberCodec.isBinary(value))
+                    unusedKeys.add(key);
+            });
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        return unusedKeys;
+    }
+
+    /**
+     * 删除不在给定集合中的缓存条目
+     *
+     * @param usedKeys 仍在使用的全部 key
+     * @return 删除的缓存条目数量
+     * @see #findUnusedKeys(Collection)
+     */
+    public int removeUnusedKeys(@NonNull Collection<String> usedKeys) {
+        Set<String> unusedKeys = findUnusedKeys(usedKeys);
+        if (unusedKeys.isEmpty()) return 0;
+
+        stateLock.readLock().lock();
+        try {
+            synchronized (storeLock) {
+                if (!isAvailable || Objects.isNull(store)) return 0;
+
+                store.remove(unusedKeys);
+                if (snapshot != null)
+                    unusedKeys.forEach(snapshot::remove);
+            }
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        Log.i(TAG, "[DexkitCache]: Removed " + unusedKeys.size() + " unused entries.");
+        return unusedKeys.size();
+    }
+
+    /**
+     * 写入缓存包中尚未缓存的条目，缓存包不适用于当前的缓存版本或 apk 时不写入
+     */
+    private void seedBundle(@NonNull IDexkitStore store, @Nullable MemberSnapshot snapshot, @NonNull DexkitBundle bundle) {
+        String fingerprint = store.getString(KEY_APK_FINGERPRINT);
+        if (!bundle.matches(version, fingerprint)) {
+            Log.i(TAG, "[DexkitCache]: Bundle is not for this apk, version: " + bundle.version + ", fingerprint: " + bundle.fingerprint);
+            return;
+        }
+
+        Map<String, byte[]> values = new LinkedHashMap<>();
+        bundle.entries.forEach((key, value) -> {
+            if (!isMarkerKey(key) && !store.contains(key))
+                values.put(key, value);
+        });
+        if (values.isEmpty()) return;
+
+        store.commit(values);
+        if (snapshot != null) values.keySet().forEach(snapshot::remove);
+        Log.i(TAG, "[DexkitCache]: Imported " + values.size() + " entries from bundle.");
+    }
+
+    @NonNull
+    private static SharedStore acquireStore(@NonNull String storePath, @NonNull String cacheName) {
+        String name = storePath + "/" + cacheName;
+        synchronized (sharedStores) {
+            SharedStore shared = sharedStores.get(name);
+            if (shared == null) {
+                shared = new SharedStore(storePath, cacheName);
+                sharedStores.put(name, shared);
+            }
+            shared.references++;
+            return shared;
+        }
+    }
+
+    /**
+     * 最后一个使用者释放后关闭缓存存储
+     */
+    private static void releaseStore(@NonNull SharedStore shared) {
+        synchronized (sharedStores) {
+            if (--shared.references > 0) return;
+
+            sharedStores.remove(shared.storePath + "/" + shared.cacheName, shared);
+            if (Objects.nonNull(shared.store))
+                shared.store.close();
+            shared.store = null;
+            shared.snapshot = null;
+            try {
+                if (shared.processLock != null)
+                    shared.processLock.close();
+            } catch (IOException ignored) {
+            }
+            shared.processLock = null;
+        }
+    }
+
+    /**
+     * 检查缓存版本、apk 与系统版本，并删除失效的缓存条目
+     *
+     * @return 是否有缓存条目失效
+     */
+    private boolean validateStore(@NonNull IDexkitStore store) {
+        String systemVersion = Build.VERSION.INCREMENTAL;
+        String apkStat = ApkFingerprint.stat(sourceDir);
+        String apkFingerprint = null;
+        String oldFingerprint = store.getString(KEY_APK_FINGERPRINT);
+        boolean clearAll = !TextUtils.equals(String.valueOf(version), store.getString(KEY_VERSION)) ||
+            !TextUtils.equals(systemVersion, store.getString(KEY_SYSTEM_VERSION)) ||
+            oldFingerprint == null;
+        boolean apkChanged = false;
+        if (!clearAll && !TextUtils.equals(apkStat, store.getString(KEY_APK_STAT))) {
+            // 大小或修改时间变化，但 dex 可能未变化
+            apkFingerprint = ApkFingerprint.fingerprint(sourceDir);
+            apkChanged = !TextUtils.equals(apkFingerprint, oldFingerprint);
+            if (apkChanged && !settings.incrementalInvalidation) clearAll = true;
+        }
+
+        // 写入不是原子的，apk 指纹作为完成标记最后写入：其他进程在此之前读取时，
+        // 会因为指纹缺失或与 apk 不一致而再次执行相同的清理，不会把失效的条目当作有效
+        if (clearAll) {
+            if (apkFingerprint == null)
+                apkFingerprint = ApkFingerprint.fingerprint(sourceDir);
+
+            store.clear();
+            store.putString(KEY_VERSION, String.valueOf(version));
+            store.putString(KEY_SYSTEM_VERSION, systemVersion);
+            store.putString(KEY_APK_FINGERPRINT, apkFingerprint);
+        } else if (apkChanged) {
+            invalidateChangedEntries(store, oldFingerprint, apkFingerprint);
+            store.putString(KEY_APK_FINGERPRINT, apkFingerprint);
+        }
+        if (apkFingerprint != null)
+            store.putString(KEY_APK_STAT, apkStat);
+        return clearAll || apkChanged;
+    }
+
+    /**
+     * 软件更新后只删除依赖的 dex 发生变化的缓存条目，未记录依赖的条目同样会被删除
+     */
+    private void invalidateChangedEntries(@NonNull IDexkitStore store, @NonNull String oldFingerprint, @NonNull String newFingerprint) {
+        Set<String> changedDexes = ApkFingerprint.changedDexes(oldFingerprint, newFingerprint);
+        ArrayList<String> staleKeys = new ArrayList<>();
+        for (String key : store.keys()) {
+            if (isMarkerKey(key)) continue;
+
+            byte[] bytes = store.get(key);
+            if (bytes == null || bytes.length == 0) continue;
+            if (MemberCodec.isBinary(bytes)) {
+                try {
+                    MemberRecord record = MemberCodec.decode(bytes);
+                    if (record.dependencies.length == 0 || dependsOn(record, changedDexes))
+                        staleKeys.add(key);
+                } catch (UnexpectedException e) {
+                    staleKeys.add(key);
+                }
+            }
+        }
+        if (!staleKeys.isEmpty())
+            store.remove(staleKeys);
+        Log.i(TAG, "[DexkitCache]: Apk changed, dexes: " + changedDexes + ", invalidated " + staleKeys.size() + " entries.");
+    }
+
+    private static boolean dependsOn(@NonNull MemberRecord record, @NonNull Set<String> dexes) {
+        for (String dependency : record.dependencies) {
+            if (dexes.contains(dependency)) return true;
+        }
+        return false;
+    }
+
+    private static boolean isMarkerKey(@NonNull String key) {
+        return KEY_VERSION.equals(key) || KEY_SYSTEM_VERSION.equals(key) ||
+            KEY_APK_STAT.equals(key) || KEY_APK_FINGERPRINT.equals(key);
+    }
+
+    /**
+     * 记录缓存条目所依赖的 dex，无法确定时不记录，此条目会在软件更新后被删除
+     * <p>
+     * dex 索引尚未建立时不会等待，而是在后台建立索引，并在建立完成后为此条目补充依赖。
+     */
+    @NonNull
+    private MemberRecord attachDependencies(@NonNull String key, @NonNull MemberRecord record) {
+        if (!settings.incrementalInvalidation || record.dependencies.length != 0)
+            return record;
+
+        DexIndex dexIndex = this.dexIndex;
+        if (dexIndex == null) {
+            if (buildDexIndexAsync()) pendingDependencies.add(key);
+            return record;
+        }
+
+        Set<String> dependencies = new TreeSet<>();
+        for (String descriptor : record.classDescriptors()) {
+            String dex = dexIndex.dexOf(descriptor);
+            if (dex == null) return record;
+            dependencies.add(dex);
+        }
+        return record.withDependencies(dependencies.toArray(new String[0]));
+    }
+
+    /**
+     * 在后台建立 dex 索引
+     *
+     * @return 索引是否正在建立，建立失败后不再重试
+     */
+    private boolean buildDexIndexAsync() {
+        synchronized (dexIndexLock) {
+            if (dexIndexState == DEX_INDEX_FAILED) return false;
+            if (dexIndexState == DEX_INDEX_BUILDING) return true;
+            dexIndexState = DEX_INDEX_BUILDING;
+        }
+        getBridgeBuilder().execute(this::buildDexIndex);
+        return true;
+    }
+
+    private void buildDexIndex() {
+        try {
+            dexIndex = DexIndex.build(sourceDir);
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "[DexkitCache]: Failed to build dex index, entries will not record dependencies!!", e);
+            synchronized (dexIndexLock) {
+                dexIndexState = DEX_INDEX_FAILED;
+            }
+            pendingDependencies.clear();
+            return;
+        }
+        backfillDependencies();
+    }
+
+    /**
+     * 为索引建立前写入的缓存条目补充依赖
+     */
+    private void backfillDependencies() {
+        stateLock.readLock().lock();
+        try {
+            if (!isAvailable || Objects.isNull(store)) {
+                pendingDependencies.clear();
+                return;
+            }
+
+            Map<String, MemberRecord> records = new LinkedHashMap<>();
+            for (Iterator<String> iterator = pendingDependencies.iterator(); iterator.hasNext(); ) {
+                String key = iterator.next();
+                iterator.remove();
+
+                byte[] value = store.get(key);
+                if (value == null || value.length == 0 || !MemberCodec.isBinary(value)) continue;
+                MemberRecord record;
+                try {
+                    record = MemberCodec.decode(ByteBuffer.wrap(value));
+                } catch (UnexpectedException e) {
+                    continue;
+                }
+                MemberRecord attached = attachDependencies(key, record);
+                if (attached != record) records.put(key, attached);
+            }
+            writeMemberRecords(records);
+        } catch (Exception e) {
+            Log.w(TAG, "[DexkitCache]: Failed to record dependencies of cached entries!!", e);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 创建 DexKitBridge，仅在缓存未命中需要真正查找时调用
+     */
+    @NonNull
+    private DexKitBridge createDexkitBridge(@NonNull ClassLoader classLoader) {
+        if (Objects.isNull(classLoader))
+            throw new NullPointerException("[DexkitCache]: ClassLoader must not be null!!");
+        bridgeLastUsed = System.nanoTime();
+        DexKitBridge bridge = dexKitBridge;
+        if (Objects.nonNull(bridge) && bridge.isValid())
+            return bridge;
+
+        CompletableFuture<Void> build = bridgeBuild;
+        if (build != null)
+            build.join(); // 等待提前创建完成，失败时按需创建
+
+        synchronized (bridgeLock) {
+            bridge = dexKitBridge;
+            if (Objects.nonNull(bridge) && bridge.isValid())
+                return bridge;
+
+            long start = DexkitMetrics.begin(DexkitMetrics.Stage.LOAD_LIBRARY);
+            try {
+                settings.libraryLoader.run();
+            } finally {
+                DexkitMetrics.end(DexkitMetrics.Stage.LOAD_LIBRARY, null, start);
+            }
+
+            start = DexkitMetrics.begin(DexkitMetrics.Stage.CREATE_BRIDGE);
+            try {
+                bridge = DexKitBridge.create(classLoader, false);
+            } finally {
+                DexkitMetrics.end(DexkitMetrics.Stage.CREATE_BRIDGE, null, start);
+            }
+            dexKitBridge = bridge;
+            long idleTimeout = settings.bridgeIdleTimeout;
+            if (sessionCount == 0 && idleTimeout > 0)
+                scheduleBridgeRelease(idleTimeout);
+        }
+
+        return bridge;
+    }
+
+    /**
+     * 在后台根据 apk 路径提前创建 DexKitBridge
+     * <p>
+     * 创建不依赖类加载器，dex 解析在调用后立即开始，首次未命中时直接使用已创建的 DexKitBridge，尚未完成时等待其完成。
+     * 已存在或正在创建 DexKitBridge 时不做任何事。
+     * <p>
+     * 仅解析 sourceDir 指向的 apk，查找的成员位于 split apk 中时不应使用。
+     * 即使全部缓存命中也会解析 dex，并占用 native 内存直到 DexKitBridge 被释放。
+     *
+     * @see DexkitCache#setPrebuildBridge(boolean)
+     */
+    public void prebuildBridge() {
+        CompletableFuture<Void> build;
+        synchronized (bridgeLock) {
+            if (dexKitBridge != null || bridgeBuild != null) return;
+            bridgeBuild = build = new CompletableFuture<>();
+        }
+        getBridgeBuilder().execute(() -> buildBridge(build));
+    }
+
+    private void buildBridge(@NonNull CompletableFuture<Void> build) {
+        DexKitBridge bridge = null;
+        try {
+            long start = DexkitMetrics.begin(DexkitMetrics.Stage.LOAD_LIBRARY);
+            try {
+                settings.libraryLoader.run();
+            } finally {
+                DexkitMetrics.end(DexkitMetrics.Stage.LOAD_LIBRARY, null, start);
+            }
+
+            start = DexkitMetrics.begin(DexkitMetrics.Stage.CREATE_BRIDGE);
+            try {
+                bridge = DexKitBridge.create(sourceDir);
+            } finally {
+                DexkitMetrics.end(DexkitMetrics.Stage.CREATE_BRIDGE, null, start);
+            }
+        } catch (Throwable e) {
+            Log.w(TAG, "[DexkitCache]: Failed to prebuild dexkit bridge, it will be created on demand!!", e);
+        }
+
+        synchronized (bridgeLock) {
+            if (bridgeBuild == build) {
+                bridgeBuild = null;
+                if (bridge != null && dexKitBridge == null) {
+                    dexKitBridge = bridge;
+                    bridge = null;
+                    bridgeLastUsed = System.nanoTime();
+                    long idleTimeout = settings.bridgeIdleTimeout;
+                    if (sessionCount == 0 && idleTimeout > 0)
+                        scheduleBridgeRelease(idleTimeout);
+                }
+            }
+        }
+        if (bridge != null)
+            bridge.close(); // 创建期间已被释放
+        build.complete(null);
+    }
+
+    /**
+     * 查找成员
+     *
+     * @param key     此缓存的唯一 key，如果为 null 则不启用缓存
+     * @param iDexkit dexkit 查找接口
+     * @return 返回查找到的成员，可能是 Class、Method、Field
+     */
+    @NonNull
+    public <T, D> T findMember(@Nullable String key, @NonNull IDexkit<D> iDexkit) {
+        if (key != null) {
+            T member = memberCache.get(key);
+            if (member != null) {
+                DexkitMetrics.hit(key, true);
+                return member;
+            }
+        }
+
+        T member;
+        stateLock.readLock().lock();
+        try {
+            member = resolveMember(key, classLoader, iDexkit, settings.negativeCaching);
+            if (key != null && isAvailable)
+                memberCache.put(key, member);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        return member;
+    }
+
+    /**
+     * 查找可能不存在的成员，查找没有结果时返回空的 Optional
+     * <p>
+     * 查找返回 null、返回空列表，或因没有结果抛出 NoResultException 时均视为不存在，
+     * 且无论是否调用 {@link #setNegativeCaching(boolean)} 都会缓存此结果，之后只需一次缓存读取，无需再次执行 dexkit 查找。
+     *
+     * @param key     此缓存的唯一 key，如果为 null 则不启用缓存
+     * @param iDexkit dexkit 查找接口
+     * @return 返回查找到的成员，可能是 Class、Method、Field
+     */
+    @NonNull
+    public <T, D> Optional<T> findOptionalMember(@Nullable String key, @NonNull IDexkit<D> iDexkit) {
+        T member = null;
+        if (key != null) {
+            member = memberCache.get(key);
+            if (member != null) DexkitMetrics.hit(key, true);
+        }
+
+        if (member == null) {
+            stateLock.readLock().lock();
+            try {
+                member = resolveMember(key, classLoader, iDexkit, true);
+                if (key != null && isAvailable)
+                    memberCache.put(key, member);
+            } catch (NoSuchElementException e) {
+                return Optional.empty();
+            } finally {
+                stateLock.readLock().unlock();
+            }
+        }
+        if (member instanceof Object[] array && array.length == 0)
+            return Optional.empty();
+        return Optional.of(member);
+    }
+
+    /**
+     * 查找成员列表，列表中的元素在首次访问时才会解析
+     * <p>
+     * 适用于对应大量 Class、Method、Field 但只使用其中一部分的 key，
+     * 查找结果为单个成员时返回只包含此成员的列表，缓存了没有结果的查找时返回空列表。
+     *
+     * @param key     此缓存的唯一 key，如果为 null 则不启用缓存
+     * @param iDexkit dexkit 查找接口
+     * @return 按需解析的成员列表
+     * @see LazyMemberList
+     */
+    @NonNull
+    public <T, D> LazyMemberList<T> findMemberList(@Nullable String key, @NonNull IDexkit<D> iDexkit) {
+        if (key != null) {
+            LazyMemberList<T> list = memberListCache.get(key);
+            if (list != null) {
+                DexkitMetrics.hit(key, true);
+                return list;
+            }
+        }
+
+        LazyMemberList<T> list;
+        stateLock.readLock().lock();
+        try {
+            MemberRecord record = findMemberRecord(key, iDexkit);
+            list = new LazyMemberList<>(key, record, this);
+            if (key != null && isAvailable && !record.isNone()) // 未找到的结果可能过期，每次都从缓存存储读取
+                memberListCache.put(key, list);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        return list;
+    }
+
+    /**
+     * 获取缓存条目，未命中时查找并写入，不解析其中的成员
+     */
+    @NonNull
+    private MemberRecord findMemberRecord(@Nullable String key, @NonNull IDexkit<?> iDexkit) {
+        initStoreIfNeed();
+        if (!isAvailable || key == null)
+            return queryMemberRecord(null, classLoader, iDexkit, settings.negativeCaching);
+
+        MemberRecord record;
+        try {
+            record = readMemberRecord(key);
+        } catch (UnexpectedException e) {
+            if (!settings.selfHealing) throw e;
+            return healMemberRecord(key, classLoader, iDexkit, null, e, settings.negativeCaching);
+        }
+        return record != null ? record : loadMemberRecord(key, classLoader, iDexkit, null, false, settings.negativeCaching);
+    }
+
+    /**
+     * 解析 {@link LazyMemberList} 中的单个元素
+     *
+     * @noinspection unchecked
+     */
+    @NonNull
+    <T> T resolveLazily(@Nullable String key, byte type, @NonNull String descriptor) {
+        long start = DexkitMetrics.begin(DexkitMetrics.Stage.RESOLVE);
+        try {
+            return (T) resolveDescriptor(type, descriptor, classLoader);
+        } catch (ClassNotFoundException | NoSuchMethodException | NoSuchFieldException e) {
+            throw new UnexpectedException(e);
+        } finally {
+            DexkitMetrics.end(DexkitMetrics.Stage.RESOLVE, key, start);
+        }
+    }
+
+    /**
+     * 异步查找成员
+     * <p>
+     * 缓存命中时直接返回已完成的 CompletableFuture，不会切换线程；
+     * 未命中时在 {@link #setExecutor(Executor)} 设置的线程池中查找，多个查找可共享同一个 DexKitBridge 并行执行。
+     *
+     * @param key     此缓存的唯一 key，如果为 null 则不启用缓存
+     * @param iDexkit dexkit 查找接口
+     * @return 返回查找到的成员，可能是 Class、Method、Field
+     */
+    @NonNull
+    public <T, D> CompletableFuture<T> findMemberAsync(@Nullable String key, @NonNull IDexkit<D> iDexkit) {
+        if (key != null) {
+            try {
+                T member = findCachedMember(key);
+                if (member != null)
+                    return CompletableFuture.completedFuture(member);
+            } catch (Throwable e) {
+                CompletableFuture<T> future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+                return future;
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> findMember(key, iDexkit), getExecutor());
+    }
+
+    /**
+     * 在时限内查找成员
+     * <p>
+     * 内存缓存命中时直接返回；否则打开与校验缓存存储、读取缓存条目以及未命中时的查找均在
+     * {@link #setExecutor(Executor)} 设置的线程池中执行，调用线程最多等待 timeout 毫秒。
+     * 超出时限时返回 fallback，查找继续在后台执行并写入缓存，之后的调用或下次启动即可命中。
+     * 后台查找期间对同一 key 的调用会等待同一次查找，不会重复查找。
+     *
+     * @param key      此缓存的唯一 key，如果为 null 则不启用缓存
+     * @param iDexkit  dexkit 查找接口
+     * @param timeout  等待查找的时限，单位为毫秒
+     * @param fallback 超出时限时返回的值，可以为 null
+     * @return 返回查找到的成员，可能是 Class、Method、Field；超出时限时返回 fallback
+     */
+    @Nullable
+    public <T, D> T findMember(@Nullable String key, @NonNull IDexkit<D> iDexkit, long timeout, @Nullable T fallback) {
+        if (timeout < 0)
+            throw new IllegalArgumentException("[DexkitCache]: Timeout must not be negative: " + timeout);
+
+        if (key != null) {
+            T member = memberCache.get(key);
+            if (member != null) {
+                DexkitMetrics.hit(key, true);
+                return member;
+            }
+        }
+
+        // 与其他查找相同，在线程池中先获取读锁再占用 inFlight，避免与等待写锁的 close() 互相等待
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> findMember(key, iDexkit), getExecutor());
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            Log.w(TAG, "[DexkitCache]: Finding member of key: " + key + " exceeded " + timeout + "ms, continuing in background!!");
+            future.whenComplete((member, throwable) -> {
+                if (throwable != null)
+                    Log.e(TAG, "[DexkitCache]: Background finding of key: " + key + " failed!!", throwable);
+            });
+            return fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+            if (cause instanceof Error error) throw error;
+            throw new UnexpectedException(cause);
+        }
+    }
+
+    /**
+     * 仅从缓存中查找成员
+     *
+     * @return 未命中时返回 null
+     */
+    @Nullable
+    private <T> T findCachedMember(@NonNull String key) {
+        T member = memberCache.get(key);
+        if (member != null) {
+            DexkitMetrics.hit(key, true);
+            return member;
+        }
+
+        stateLock.readLock().lock();
+        try {
+            initStoreIfNeed();
+            if (!isAvailable) return null;
+
+            try {
+                MemberRecord record = readMemberRecord(key);
+                if (record == null) return null;
+
+                member = resolveMemberRecord(key, record, classLoader);
+            } catch (UnexpectedException e) {
+                if (settings.selfHealing) return null; // 交由 findMember 修复
+                throw e;
+            }
+            memberCache.put(key, member);
+            return member;
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 批量查找成员
+     * <p>
+     * 先一次性从缓存中读取全部 key，只有未命中的查找才会在同一个 DexKitBridge 上执行，
+     * 其中由 {@link DexkitQueries} 创建的字符串查找会被合并为 dexkit 的批量字符串查找，
+     * 最后统一写入所有新的缓存条目。
+     * <p>
+     * 单个 key 的失败不会抛出，而是记录在返回结果中。
+     *
+     * @param iDexkits key 与 dexkit 查找接口的映射
+     * @return 查找结果
+     */
+    @NonNull
+    public MemberResults findMembers(@NonNull Map<String, ? extends IDexkit<?>> iDexkits) {
+        MemberResults results = new MemberResults();
+        Map<String, IDexkit<?>> misses = new LinkedHashMap<>();
+        iDexkits.forEach((key, iDexkit) -> {
+            Object member = memberCache.get(key);
+            if (member != null) {
+                DexkitMetrics.hit(key, true);
+                results.putMember(key, member);
+            } else misses.put(key, iDexkit);
+        });
+        if (misses.isEmpty()) return results;
+
+        stateLock.readLock().lock();
+        try {
+            initStoreIfNeed();
+            Map<String, MemberRecord> records = new LinkedHashMap<>();
+            Map<String, CompletableFuture<MemberRecord>> claimed = new LinkedHashMap<>();
+            Map<String, CompletableFuture<MemberRecord>> running = new LinkedHashMap<>();
+            Set<String> cachedKeys = new HashSet<>();
+            try {
+                if (isAvailable) {
+                    misses.keySet().removeIf(key -> {
+                        CompletableFuture<MemberRecord> future = new CompletableFuture<>();
+                        CompletableFuture<MemberRecord> other = inFlight.putIfAbsent(key, future);
+                        if (other != null) {
+                            running.put(key, other);
+                            return true;
+                        }
+
+                        claimed.put(key, future);
+                        try {
+                            MemberRecord record = readMemberRecord(key);
+                            if (record == null) return false;
+                            records.put(key, record);
+                            cachedKeys.add(key);
+                        } catch (Throwable e) {
+                            if (settings.selfHealing && e instanceof UnexpectedException) {
+                                settings.selfHealCount.incrementAndGet();
+                                Log.w(TAG, "[DexkitCache]: Cached member of key: " + key + " is broken, finding it again!!", e);
+                                return false;
+                            }
+                            results.putFailure(key, e);
+                        }
+                        return true;
+                    });
+                }
+
+                if (!misses.isEmpty()) {
+                    try (ProcessLock.Handle handle = lockProcess(misses.keySet())) {
+                        if (handle != null) {
+                            misses.keySet().removeIf(key -> {
+                                if (!handle.contains(key)) return false;
+                                try {
+                                    MemberRecord record = readMemberRecord(key); // 其他进程可能已完成查找
+                                    if (record == null) return false;
+                                    records.put(key, record);
+                                    cachedKeys.add(key);
+                                    return true;
+                                } catch (Throwable e) {
+                                    return false; // 重新查找并覆盖
+                                }
+                            });
+                        }
+
+                        if (!misses.isEmpty()) {
+                            Map<String, MemberRecord> queried = queryMemberRecords(classLoader, misses, results);
+                            if (isAvailable) writeMemberRecords(queried);
+                            records.putAll(queried);
+                        }
+                    }
+                }
+            } finally {
+                claimed.forEach((key, future) -> {
+                    MemberRecord record = records.get(key);
+                    Throwable failure = results.getFailure(key);
+                    if (record != null) future.complete(record);
+                    else if (failure != null) future.completeExceptionally(failure);
+                    else future.completeExceptionally(new UnexpectedException("[DexkitCache]: Failed to find member: " + key));
+                    inFlight.remove(key, future);
+                });
+            }
+
+            running.forEach((key, future) -> {
+                try {
+                    records.put(key, awaitMemberRecord(future));
+                } catch (Throwable e) {
+                    results.putFailure(key, e);
+                }
+            });
+
+            records.forEach((key, record) -> {
+                try {
+                    Object member;
+                    try {
+                        member = resolveMemberRecord(key, record, classLoader);
+                    } catch (UnexpectedException e) {
+                        if (!settings.selfHealing || !cachedKeys.contains(key)) throw e;
+                        member = resolveMemberRecord(key, healMemberRecord(key, classLoader, iDexkits.get(key), record, e, settings.negativeCaching), classLoader);
+                    }
+                    if (isAvailable) memberCache.put(key, member);
+                    results.putMember(key, member);
+                } catch (Throwable e) {
+                    results.putFailure(key, e);
+                }
+            });
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        return results;
+    }
+
+    /**
+     * @param negative 是否缓存没有结果的查找
+     */
+    @NonNull
+    private <T, D> T resolveMember(@Nullable String key, @NonNull ClassLoader classLoader, @NonNull IDexkit<D> iDexkit, boolean negative) {
+        initStoreIfNeed();
+        if (!isAvailable) key = null; // 缓存不可用
+
+        if (key == null)
+            return resolveMemberRecord(key, queryMemberRecord(key, classLoader, iDexkit, negative), classLoader);
+
+        if (!settings.selfHealing) {
+            MemberRecord record = readMemberRecord(key);
+            if (record == null)
+                record = loadMemberRecord(key, classLoader, iDexkit, null, false, negative);
+            return resolveMemberRecord(key, record, classLoader);
+        }
+
+        MemberRecord record = null;
+        try {
+            record = readMemberRecord(key);
+            if (record != null)
+                return resolveMemberRecord(key, record, classLoader);
+        } catch (UnexpectedException e) {
+            return resolveMemberRecord(key, healMemberRecord(key, classLoader, iDexkit, record, e, negative), classLoader);
+        }
+        return resolveMemberRecord(key, loadMemberRecord(key, classLoader, iDexkit, null, false, negative), classLoader);
+    }
+
+    /**
+     * 缓存条目无法读取或解析时，重新查找并覆盖此条目
+     *
+     * @param stale 无法解析的缓存条目，无法读取时为 null
+     */
+    @NonNull
+    private MemberRecord healMemberRecord(@NonNull String key, @NonNull ClassLoader classLoader, @NonNull IDexkit<?> iDexkit,
+                                          @Nullable MemberRecord stale, @NonNull Throwable cause, boolean negative) {
+        settings.selfHealCount.incrementAndGet();
+        Log.w(TAG, "[DexkitCache]: Cached member of key: " + key + " is broken, finding it again!!", cause);
+        return loadMemberRecord(key, classLoader, iDexkit, stale, true, negative);
+    }
+
+    /**
+     * 缓存未命中时查找并写入，同一 key 的并发未命中只会执行一次查找与写入
+     *
+     * @param stale   需要被覆盖的缓存条目
+     * @param healing 是否正在修复损坏的缓存条目，此时无法读取的缓存条目视为未命中
+     * @param negative 是否缓存没有结果的查找
+     */
+    @NonNull
+    private MemberRecord loadMemberRecord(@NonNull String key, @NonNull ClassLoader classLoader, @NonNull IDexkit<?> iDexkit,
+                                          @Nullable MemberRecord stale, boolean healing, boolean negative) {
+        CompletableFuture<MemberRecord> future = new CompletableFuture<>();
+        CompletableFuture<MemberRecord> running = inFlight.putIfAbsent(key, future);
+        if (running != null)
+            return awaitMemberRecord(running);
+
+        try {
+            MemberRecord record = null;
+            try {
+                record = readMemberRecord(key); // 其他线程可能刚刚完成写入或修复
+            } catch (UnexpectedException e) {
+                if (!healing) throw e;
+            }
+            if (record == null || record.equals(stale))
+                record = populateMemberRecord(key, classLoader, iDexkit, stale, healing, negative);
+            future.complete(record);
+            return record;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 查找并写入缓存条目，启用跨进程协调时只有持有此 key 的锁的进程会执行查找，
+     * 其他进程获得锁后直接读取其写入的结果，超时则自行查找
+     */
+    @NonNull
+    private MemberRecord populateMemberRecord(@NonNull String key, @NonNull ClassLoader classLoader, @NonNull IDexkit<?> iDexkit,
+                                              @Nullable MemberRecord stale, boolean healing, boolean negative) {
+        try (ProcessLock.Handle handle = lockProcess(Collections.singleton(key))) {
+            if (handle != null && handle.contains(key)) {
+                MemberRecord record = null;
+                try {
+                    record = readMemberRecord(key); // 其他进程可能已完成查找
+                } catch (UnexpectedException e) {
+                    if (!healing) throw e;
+                }
+                if (record != null && !record.equals(stale))
+                    return record;
+            }
+
+            MemberRecord record = attachDependencies(key, queryMemberRecord(key, classLoader, iDexkit, negative));
+            writeMemberRecord(key, record);
+            return record;
+        }
+    }
+
+    /**
+     * 获取这些 key 的跨进程锁，未启用跨进程协调时返回 null
+     */
+    @Nullable
+    private ProcessLock.Handle lockProcess(@NonNull Collection<String> keys) {
+        ProcessLock processLock = isAvailable ? getProcessLock() : null;
+        if (processLock == null) return null;
+
+        long start = DexkitMetrics.begin(DexkitMetrics.Stage.PROCESS_LOCK);
+        try {
+            return processLock.acquire(keys, settings.processLockTimeout);
+        } finally {
+            DexkitMetrics.end(DexkitMetrics.Stage.PROCESS_LOCK, null, start);
+        }
+    }
+
+    @Nullable
+    private ProcessLock getProcessLock() {
+        SharedStore shared = sharedStore;
+        if (settings.processLockTimeout <= 0 || shared == null)
+            return null;
+
+        synchronized (shared) {
+            if (shared.processLock == null && !shared.processLockFailed) {
+                try {
+                    shared.processLock = new ProcessLock(shared.storePath, shared.cacheName);
+                } catch (IOException e) {
+                    shared.processLockFailed = true;
+                    Log.w(TAG, "[DexkitCache]: Failed to open process lock, processes will find members on their own!!", e);
+                }
+            }
+            return shared.processLock;
+        }
+    }
+
+    @NonNull
+    private static MemberRecord awaitMemberRecord(@NonNull CompletableFuture<MemberRecord> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+            if (cause instanceof Error error) throw error;
+            throw new UnexpectedException(cause);
+        }
+    }
+
+    /**
+     * @param negative 查找没有结果时是否返回 {@link MemberRecord#TYPE_NONE} 条目，否则抛出异常
+     */
+    @NonNull
+    private MemberRecord queryMemberRecord(@Nullable String key, @NonNull ClassLoader classLoader, @NonNull IDexkit<?> iDexkit, boolean negative) {
+        if (key != null) DexkitMetrics.miss(key);
+        DexKitBridge dexKitBridge = createDexkitBridge(classLoader);
+        long start = DexkitMetrics.begin(DexkitMetrics.Stage.QUERY);
+        try {
+            Object dexkit = iDexkit.dexkit(dexKitBridge);
+            return negative && dexkit == null ? noneMemberRecord() : toMemberRecord(dexkit);
+        } catch (ReflectiveOperationException e) {
+            throw new UnexpectedException(e);
+        } catch (RuntimeException e) {
+            if (negative && isNotFound(e)) return noneMemberRecord();
+            throw e;
+        } finally {
+            DexkitMetrics.end(DexkitMetrics.Stage.QUERY, key, start);
+        }
+    }
+
+    /**
+     * 在同一个 DexKitBridge 上执行全部查找，可合并的字符串查找会使用 dexkit 的批量接口
+     */
+    @NonNull
+    private Map<String, MemberRecord> queryMemberRecords(@NonNull ClassLoader classLoader, @NonNull Map<String, IDexkit<?>> iDexkits, @NonNull MemberResults results) {
+        Map<String, MemberRecord> records = new LinkedHashMap<>();
+        DexKitBridge dexKitBridge;
+        try {
+            dexKitBridge = createDexkitBridge(classLoader);
+        } catch (Throwable e) {
+            iDexkits.keySet().forEach(key -> results.putFailure(key, e));
+            return records;
+        }
+
+        boolean negative = settings.negativeCaching;
+        BiConsumer<String, Throwable> failure = (key, e) -> {
+            if (negative && isNotFound(e)) records.put(key, noneMemberRecord());
+            else results.putFailure(key, e);
+        };
+        iDexkits.keySet().forEach(DexkitMetrics::miss);
+        Map<String, IDexkit<?>> remaining = new LinkedHashMap<>(iDexkits);
+        long start = DexkitMetrics.begin(DexkitMetrics.Stage.QUERY);
+        DexkitQueries.batchQuery(dexKitBridge, remaining, (key, dexkit) -> {
+            try {
+                records.put(key, negative && dexkit == null ? noneMemberRecord() : toMemberRecord(dexkit));
+            } catch (Throwable e) {
+                results.putFailure(key, e);
+            }
+        }, failure);
+        DexkitMetrics.end(DexkitMetrics.Stage.QUERY, null, start);
+
+        remaining.forEach((key, iDexkit) -> {
+            long queryStart = DexkitMetrics.begin(DexkitMetrics.Stage.QUERY);
+            try {
+                Object dexkit = iDexkit.dexkit(dexKitBridge);
+                records.put(key, negative && dexkit == null ? noneMemberRecord() : toMemberRecord(dexkit));
+            } catch (Throwable e) {
+                failure.accept(key, e);
+            } finally {
+                DexkitMetrics.end(DexkitMetrics.Stage.QUERY, key, queryStart);
+            }
+        });
+        return records;
+    }
+
+    /**
+     * 查找是否因没有结果而失败，dexkit 的 single() 会抛出 NoResultException
+     */
+    private static boolean isNotFound(@NonNull Throwable e) {
+        return e instanceof NoResultException || e instanceof NoSuchElementException;
+    }
+
+    @NonNull
+    private MemberRecord noneMemberRecord() {
+        long ttl = settings.negativeCacheTtl;
+        return MemberRecord.none(ttl > 0 ? System.currentTimeMillis() + ttl : 0);
+    }
+
+    /**
+     * 读取缓存条目
+     * <p>
+     * 已过期的未找到结果，以及不是成员缓存条目的值（例如 {@link IInitialization} 中写入的字符串）视为未命中。
+     */
+    @Nullable
+    private MemberRecord readMemberRecord(@NonNull String key) {
+        MemberSnapshot snapshot = this.snapshot;
+        MemberRecord record = snapshot == null ? null : snapshot.get(key);
+        if (record != null) {
+            DexkitMetrics.hit(key, false);
+            return record;
+        }
+
+        long start = DexkitMetrics.begin(DexkitMetrics.Stage.DECODE);
+        try {
+            ByteBuffer buffer = store.getBuffer(key);
+            if (buffer == null || !buffer.hasRemaining() || !MemberCodec.isBinary(buffer)) return null;
+            record = MemberCodec.decode(buffer);
+        } finally {
+            DexkitMetrics.end(DexkitMetrics.Stage.DECODE, key, start);
+        }
+        if (record.isExpired()) return null;
+        DexkitMetrics.hit(key, false);
+        return record;
+    }
+
+    private void writeMemberRecord(@NonNull String key, @NonNull MemberRecord record) {
+        store.put(key, MemberCodec.encode(record));
+        MemberSnapshot snapshot = this.snapshot;
+        if (snapshot != null) snapshot.remove(key);
+    }
+
+    /**
+     * 批量写入多个缓存条目，各个条目互相独立，其他进程先看到其中一部分条目也不影响正确性
+     */
+    private void writeMemberRecords(@NonNull Map<String, MemberRecord> records) {
+        if (records.isEmpty()) return;
+
+        records.replaceAll(this::attachDependencies);
+        Map<String, byte[]> values = new LinkedHashMap<>();
+        records.forEach((key, record) -> values.put(key, MemberCodec.encode(record)));
+        store.commit(values);
+        MemberSnapshot snapshot = this.snapshot;
+        if (snapshot != null) records.keySet().forEach(snapshot::remove);
+    }
+
+    /**
+     * 将 dexkit 的查找结果转换为可缓存的描述
+     *
+     * @noinspection IfCanBeSwitch
+     */
+    @NonNull
+    private static MemberRecord toMemberRecord(@NonNull Object dexkit) {
+        if (dexkit instanceof BaseData) {
+            if (dexkit instanceof ClassData classData)
+                return MemberRecord.single(MemberRecord.TYPE_CLASS, classData.toDexType().serialize());
+            else if (dexkit instanceof MethodData methodData)
+                return MemberRecord.single(MemberRecord.TYPE_METHOD, methodData.toDexMethod().serialize());
+            else if (dexkit instanceof FieldData fieldData)
+                return MemberRecord.single(MemberRecord.TYPE_FIELD, fieldData.toDexField().serialize());
+            else
+                throw new UnexpectedException("[DexkitCache]: Unknown BaseData type: " + dexkit);
+        } else if (dexkit instanceof BaseDataList<?> list) {
+            ArrayList<String> serializeList = new ArrayList<>();
+            for (Object baseData : list) {
+                if (baseData instanceof ClassData classData)
+                    serializeList.add(classData.toDexType().serialize());
+                else if (baseData instanceof MethodData methodData)
+                    serializeList.add(methodData.toDexMethod().serialize());
+                else if (baseData instanceof FieldData fieldData)
+                    serializeList.add(fieldData.toDexField().serialize());
+                else
+                    throw new UnexpectedException("[DexkitCache]: Unknown BaseData type: " + baseData);
+            }
+
+            if (dexkit instanceof ClassDataList)
+                return MemberRecord.list(MemberRecord.TYPE_CLASS, serializeList);
+            else if (dexkit instanceof MethodDataList)
+                return MemberRecord.list(MemberRecord.TYPE_METHOD, serializeList);
+            else if (dexkit instanceof FieldDataList)
+                return MemberRecord.list(MemberRecord.TYPE_FIELD, serializeList);
+            else
+                throw new UnexpectedException("[DexkitCache]: Unknown BaseDataList type: " + dexkit);
+        } else
+            throw new UnexpectedException("[DexkitCache]: Unknown return type: " + dexkit);
+    }
+
+    /**
+     * 将缓存描述解析为 Class、Method、Field 或其数组
+     *
+     * @noinspection unchecked
+     */
+    @NonNull
+    private <T> T resolveMemberRecord(@Nullable String key, @NonNull MemberRecord record, @NonNull ClassLoader classLoader) {
+        if (record.isNone())
+            throw new NoSuchElementException("[DexkitCache]: No member found for key: " + key);
+
+        long start = DexkitMetrics.begin(DexkitMetrics.Stage.RESOLVE);
+        try {
+            if (!record.isList) {
+                return (T) resolveDescriptor(record.type, record.descriptors[0], classLoader);
+            } else {
+                Class<?> clazz = switch (record.type) {
+                    case MemberRecord.TYPE_CLASS -> Class.class;
+                    case MemberRecord.TYPE_METHOD -> Method.class;
+                    case MemberRecord.TYPE_FIELD -> Field.class;
+                    default ->
+                        throw new UnexpectedException("[DexkitCache]: Unknown member type: " + record.type);
+                };
+                Object[] members = (Object[]) Array.newInstance(clazz, record.descriptors.length);
+                for (int i = 0; i < members.length; i++) {
+                    members[i] = resolveDescriptor(record.type, record.descriptors[i], classLoader);
+                }
+                return (T) members;
+            }
+        } catch (ClassNotFoundException | NoSuchMethodException | NoSuchFieldException e) {
+            throw new UnexpectedException(e);
+        } finally {
+            DexkitMetrics.end(DexkitMetrics.Stage.RESOLVE, key, start);
+        }
+    }
+
+    /**
+     * 优先使用按声明类建立的索引解析，索引中不存在时回退到 dexkit 的解析方式
+     */
+    @NonNull
+    private Object resolveDescriptor(byte type, @NonNull String descriptor, @NonNull ClassLoader classLoader)
+        throws ClassNotFoundException, NoSuchMethodException, NoSuchFieldException {
+        Object member = switch (type) {
+            case MemberRecord.TYPE_CLASS -> memberResolver.findClass(classLoader, descriptor);
+            case MemberRecord.TYPE_METHOD -> memberResolver.findMethod(classLoader, descriptor);
+            case MemberRecord.TYPE_FIELD -> memberResolver.findField(classLoader, descriptor);
+            default ->
+                throw new UnexpectedException("[DexkitCache]: Unknown member type: " + type);
+        };
+        if (member != null) return member;
+
+        return switch (type) {
+            case MemberRecord.TYPE_CLASS -> new DexClass(descriptor).getInstance(classLoader);
+            case MemberRecord.TYPE_METHOD -> new DexMethod(descriptor).getMethodInstance(classLoader);
+            case MemberRecord.TYPE_FIELD -> new DexField(descriptor).getFieldInstance(classLoader);
+            default ->
+                throw new UnexpectedException("[DexkitCache]: Unknown member type: " + type);
+        };
+    }
+
+    /**
+     * 释放 DexKitBridge 占用的 native 内存，之后的查找会按需重新创建
+     * <p>
+     * 缓存存储与已解析的成员在进程内保持可用，因此调用后无需重新打开缓存与检查版本。
+     * <p>
+     * 推荐使用 {@link #openSession()} 代替手动调用，尽量避免 dexkit 在使用后未被释放！
+     * <p>
+     * 会等待其他线程中正在进行的查找完成，不能在 {@link IDexkit#dexkit(DexKitBridge)} 中调用。
+     */
+    public void close() {
+        if (stateLock.getReadHoldCount() > 0)
+            throw new IllegalStateException("[DexkitCache]: Can not close dexkit while finding member!!");
+
+        stateLock.writeLock().lock();
+        try {
+            synchronized (bridgeLock) {
+                releaseBridgeLocked();
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 开始 dexkit 会话，会话期间 DexKitBridge 不会被释放
+     * <p>
+     * 最后一个会话结束后会释放 DexKitBridge，设置了空闲超时时会在空闲超时后释放。
+     */
+    @NonNull
+    public DexkitSession openSession() {
+        synchronized (bridgeLock) {
+            sessionCount++;
+            cancelBridgeRelease();
+        }
+        return new DexkitSession(this);
+    }
+
+    void closeSession() {
+        synchronized (bridgeLock) {
+            if (--sessionCount > 0) return;
+            scheduleBridgeRelease(bridgeIdleDelay());
+        }
+    }
+
+    /**
+     * 设置 DexKitBridge 的空闲超时，默认为 0
+     * <p>
+     * 大于 0 时，DexKitBridge 在没有会话且超过该时间未被使用后会被释放；
+     * 为 0 时，最后一个会话结束后立即释放，不使用会话时保留到调用 {@link #close()}。
+     *
+     * @param idleTimeout 空闲超时，单位为毫秒
+     */
+    public void setBridgeIdleTimeout(long idleTimeout) {
+        if (idleTimeout < 0)
+            throw new IllegalArgumentException("[DexkitCache]: Idle timeout must not be negative: " + idleTimeout);
+        settings.bridgeIdleTimeout = idleTimeout;
+    }
+
+    /**
+     * 距离空闲超时的剩余时间，需要持有 bridgeLock
+     */
+    private long bridgeIdleDelay() {
+        long idleTimeout = settings.bridgeIdleTimeout;
+        if (idleTimeout <= 0) return 0;
+        return Math.max(0, idleTimeout - (System.nanoTime() - bridgeLastUsed) / 1_000_000);
+    }
+
+    private void scheduleBridgeRelease(long delay) {
+        cancelBridgeRelease();
+        if (dexKitBridge == null) return;
+
+        bridgeRelease = getScheduler().schedule(this::releaseIdleBridge, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelBridgeRelease() {
+        ScheduledFuture<?> bridgeRelease = this.bridgeRelease;
+        if (bridgeRelease != null)
+            bridgeRelease.cancel(false);
+        this.bridgeRelease = null;
+    }
+
+    /**
+     * 在没有会话且空闲超时后释放 DexKitBridge，正在查找时稍后重试
+     */
+    private void releaseIdleBridge() {
+        synchronized (bridgeLock) {
+            bridgeRelease = null;
+            if (sessionCount > 0 || dexKitBridge == null) return;
+
+            long delay = bridgeIdleDelay();
+            if (delay > 0) {
+                scheduleBridgeRelease(delay);
+                return;
+            }
+        }
+
+        if (!stateLock.writeLock().tryLock()) {
+            synchronized (bridgeLock) {
+                if (sessionCount == 0)
+                    scheduleBridgeRelease(BRIDGE_RELEASE_RETRY_DELAY);
+            }
+            return;
+        }
+        try {
+            synchronized (bridgeLock) {
+                if (sessionCount == 0 && bridgeRelease == null)
+                    releaseBridgeLocked();
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 需要持有写锁与 bridgeLock
+     */
+    private void releaseBridgeLocked() {
+        cancelBridgeRelease();
+        bridgeBuild = null; // 正在提前创建的 DexKitBridge 完成后直接释放
+        if (Objects.nonNull(dexKitBridge))
+            dexKitBridge.close();
+        dexKitBridge = null;
+    }
+
+    /**
+     * 释放此实例的全部资源，之后的查找会按需重新打开缓存存储
+     * <p>
+     * 由 {@link DexkitCache} 在以新的配置重新初始化时调用。
+     */
+    void release() {
+        if (stateLock.getReadHoldCount() > 0)
+            throw new IllegalStateException("[DexkitCache]: Can not init dexkit while finding member!!");
+
+        stateLock.writeLock().lock();
+        try {
+            memberCache.clear();
+            memberListCache.clear();
+            memberResolver.clear();
+            synchronized (bridgeLock) {
+                releaseBridgeLocked();
+            }
+
+            synchronized (storeLock) {
+                SharedStore shared = sharedStore;
+                sharedStore = null;
+                store = null;
+                snapshot = null;
+                if (shared != null)
+                    releaseStore(shared);
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 在后台释放此实例的全部资源，由 {@link DexkitCache} 在实例被移出 LRU 时调用
+     * <p>
+     * 移出 LRU 可能发生在此实例的查找过程中，因此不能在当前线程中等待写锁。
+     */
+    void releaseAsync() {
+        getScheduler().execute(this::release);
+    }
+
+    /**
+     * 是否使用相同的缓存配置
+     */
+    boolean matches(@NonNull String cachePath, @NonNull String dataDir, int version) {
+        return this.version == version && this.cachePath.equals(cachePath) && this.dataDir.equals(dataDir);
+    }
+
+    @NonNull
+    private static ScheduledExecutorService getBridgeBuilder() {
+        ScheduledExecutorService bridgeBuilder = DexkitCacheInstance.bridgeBuilder;
+        if (bridgeBuilder == null) {
+            synchronized (DexkitCacheInstance.class) {
+                bridgeBuilder = DexkitCacheInstance.bridgeBuilder;
+                if (bridgeBuilder == null)
+                    DexkitCacheInstance.bridgeBuilder = bridgeBuilder = DexkitExecutors.newScheduler("DexkitCache-bridge");
+            }
+        }
+        return bridgeBuilder;
+    }
+
+    @NonNull
+    private static ScheduledExecutorService getScheduler() {
+        ScheduledExecutorService scheduler = DexkitCacheInstance.scheduler;
+        if (scheduler == null) {
+            synchronized (DexkitCacheInstance.class) {
+                scheduler = DexkitCacheInstance.scheduler;
+                if (scheduler == null)
+                    DexkitCacheInstance.scheduler = scheduler = DexkitExecutors.newScheduler("DexkitCache-release");
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * 同一缓存目录与名称的实例共用的缓存存储与跨进程锁，引用计数由 sharedStores 的锁保护
+     */
+    private static final class SharedStore {
+        @NonNull
+        private final String storePath;
+        @NonNull
+        private final String cacheName;
+        private int references = 0;
+        private volatile IDexkitStore store = null;
+        private volatile MemberSnapshot snapshot = null;
+        // 由自身的锁保护
+        private ProcessLock processLock = null;
+        private boolean processLockFailed = false;
+
+        private SharedStore(@NonNull String storePath, @NonNull String cacheName) {
+            this.storePath = storePath;
+            this.cacheName = cacheName;
+        }
+    }
+
+    /**
+     * 实例的设置，由 {@link DexkitCache} 创建的实例共用同一份设置
+     */
+    static final class Settings {
+        volatile IStoreFactory storeFactory = MMKVStore::new;
+        volatile boolean snapshotEnabled = false;
+        volatile Executor executor = null;
+        volatile IInitialization iInitialization = null;
+        volatile boolean prewarmOnInvalidated = false;
+        volatile boolean incrementalInvalidation = true;
+        volatile boolean selfHealing = false;
+        volatile long bridgeIdleTimeout = 0;
+        volatile long processLockTimeout = 0;
+        volatile boolean prebuildBridge = false;
+        volatile boolean negativeCaching = false;
+        volatile long negativeCacheTtl = 0;
+        // 加载 dexkit 的 native 库，基准测试在 JVM 上使用替身时替换为空操作
+        volatile Runnable libraryLoader = () -> System.loadLibrary("dexkit");
+        final AtomicInteger selfHealCount = new AtomicInteger();
+        // 通过 register 注册的全部查找
+        final ConcurrentHashMap<String, IDexkit<?>> registry = new ConcurrentHashMap<>();
+    }
+}
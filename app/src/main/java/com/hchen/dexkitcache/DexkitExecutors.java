@@ -0,0 +1,128 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 用于异步查找的线程池
+ *
+ * @author 焕晨HChen
+ */
+public final class DexkitExecutors {
+    private DexkitExecutors() {
+    }
+
+    /**
+     * 创建有界线程池，空闲线程会自动回收
+     *
+     * @param parallelism 最大并行查找数量
+     */
+    @NonNull
+    public static ExecutorService newBoundedExecutor(int parallelism) {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("[DexkitCache]: Parallelism must be positive: " + parallelism);
+
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "DexkitCache-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 创建单线程的定时执行器，空闲线程会自动回收
+     */
+    @NonNull
+    static ScheduledExecutorService newScheduler(@NonNull String name) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setKeepAliveTime(30, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * 在支持虚拟线程的环境中创建并行数有界的虚拟线程执行器，否则返回 {@link #newBoundedExecutor(int)}
+     *
+     * @param parallelism 最大并行查找数量
+     */
+    @NonNull
+    public static Executor newVirtualThreadExecutor(int parallelism) {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("[DexkitCache]: Parallelism must be positive: " + parallelism);
+
+        Executor virtual = createVirtualThreadExecutor();
+        if (virtual == null)
+            return newBoundedExecutor(parallelism);
+
+        Semaphore semaphore = new Semaphore(parallelism);
+        return command -> virtual.execute(() -> {
+            semaphore.acquireUninterruptibly();
+            try {
+                command.run();
+            } finally {
+                semaphore.release();
+            }
+        });
+    }
+
+    /**
+     * 是否支持虚拟线程
+     */
+    public static boolean isVirtualThreadAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    @Nullable
+    private static Executor createVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) method.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记 dexkit 查找方法，由 processor 模块的注解处理器生成类型化的成员访问类
+ * <p>
+ * 被标记的方法必须是非 private 的静态方法，唯一的参数为 DexKitBridge，
+ * 返回 ClassData、MethodData、FieldData 或其列表：
+ * <pre>{@code
+ * final class Hooks {
+ *     @DexkitMember("test_key")
+ *     static ClassData testClass(DexKitBridge bridge) {
+ *         return bridge.findClass(FindClass.create()
+ *             .matcher(ClassMatcher.create().usingStrings("test class"))
+ *         ).single();
+ *     }
+ * }
+ *
+ * Class<?> clazz = HooksMembers.testClass(); // 首次访问时查找，之后直接读取静态常量
+ * }</pre>
+ * 同时会生成包含全部 key 的 DexkitRegistry，可用于批量查找与清理不再使用的缓存条目。
+ *
+ * @author 焕晨HChen
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.SOURCE)
+public @interface DexkitMember {
+    /**
+     * 此缓存的唯一 key
+     */
+    String value();
+
+    /**
+     * 生成的访问方法名称，默认与被标记的方法相同
+     */
+    String name() default "";
+}
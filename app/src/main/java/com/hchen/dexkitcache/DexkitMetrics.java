@@ -0,0 +1,321 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import android.os.Trace;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 查找过程的指标统计
+ * <p>
+ * 默认关闭，关闭时每个统计点只有一次 volatile 读取。
+ * 开启 {@link #setTraceEnabled(boolean)} 后各个阶段会以 android.os.Trace 区段输出，可在 Perfetto 中查看。
+ *
+ * @author 焕晨HChen
+ */
+public final class DexkitMetrics {
+    private static final String TAG = "DexkitCache";
+    private static volatile boolean isEnabled = false;
+    private static volatile boolean isTraceEnabled = false;
+    private static volatile IMetricsListener listener = null;
+    private static final ConcurrentHashMap<String, KeyCounter> keyCounters = new ConcurrentHashMap<>();
+    private static final AtomicLong[] stageCounts = newCounters();
+    private static final AtomicLong[] stageNanos = newCounters();
+
+    /**
+     * 统计的阶段
+     */
+    public enum Stage {
+        /**
+         * 缓存存储初始化
+         */
+        STORE_INIT,
+        /**
+         * 缓存版本、apk 与系统版本检查
+         */
+        VALIDATE,
+        /**
+         * 加载缓存快照
+         */
+        SNAPSHOT,
+        /**
+         * 加载 dexkit 原生库
+         */
+        LOAD_LIBRARY,
+        /**
+         * 创建 DexKitBridge
+         */
+        CREATE_BRIDGE,
+        /**
+         * 等待其他进程完成查找
+         */
+        PROCESS_LOCK,
+        /**
+         * 执行 {@link IDexkit#dexkit(org.luckypray.dexkit.DexKitBridge)}
+         */
+        QUERY,
+        /**
+         * 读取并解码缓存条目
+         */
+        DECODE,
+        /**
+         * 反射解析 Class、Method、Field
+         */
+        RESOLVE;
+
+        final String section = "DexkitCache#" + name();
+    }
+
+    private DexkitMetrics() {
+    }
+
+    /**
+     * 是否开启统计
+     */
+    public static void setEnabled(boolean enabled) {
+        DexkitMetrics.isEnabled = enabled;
+    }
+
+    /**
+     * 是否以 android.os.Trace 区段输出各个阶段
+     */
+    public static void setTraceEnabled(boolean traceEnabled) {
+        DexkitMetrics.isTraceEnabled = traceEnabled;
+    }
+
+    /**
+     * 设置指标监听，仅在开启统计时回调
+     */
+    public static void setListener(@Nullable IMetricsListener listener) {
+        DexkitMetrics.listener = listener;
+    }
+
+    /**
+     * 清空已统计的数据
+     */
+    public static void reset() {
+        keyCounters.clear();
+        for (int i = 0; i < stageCounts.length; i++) {
+            stageCounts[i].set(0);
+            stageNanos[i].set(0);
+        }
+    }
+
+    /**
+     * 获取当前统计数据的快照
+     */
+    @NonNull
+    public static Snapshot snapshot() {
+        Map<String, KeyMetrics> keys = new TreeMap<>();
+        keyCounters.forEach((key, counter) -> keys.put(key, counter.toMetrics()));
+
+        Map<Stage, StageMetrics> stages = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new StageMetrics(stageCounts[stage.ordinal()].get(), stageNanos[stage.ordinal()].get()));
+        }
+        return new Snapshot(Collections.unmodifiableMap(keys), Collections.unmodifiableMap(stages));
+    }
+
+    /**
+     * 以文本形式输出当前统计数据
+     */
+    @NonNull
+    public static String dump() {
+        return snapshot().toString();
+    }
+
+    /**
+     * 开始一个阶段，返回值需传入 {@link #end(Stage, String, long)}
+     * <p>
+     * 返回值最低位表示是否开启了 Trace 区段，为 0 表示未开启统计。
+     */
+    static long begin(@NonNull Stage stage) {
+        boolean trace = isTraceEnabled;
+        if (!isEnabled && !trace) return 0;
+
+        if (trace) Trace.beginSection(stage.section);
+        return (System.nanoTime() & ~1L) | (trace ? 1L : 0L) | 2L;
+    }
+
+    static void end(@NonNull Stage stage, @Nullable String key, long start) {
+        if (start == 0) return;
+        if ((start & 1L) != 0) Trace.endSection();
+        if (!isEnabled) return;
+
+        long nanos = Math.max(0, System.nanoTime() - (start & ~3L));
+        stageCounts[stage.ordinal()].incrementAndGet();
+        stageNanos[stage.ordinal()].addAndGet(nanos);
+        if (key != null) {
+            KeyCounter counter = counterOf(key);
+            switch (stage) {
+                case QUERY -> counter.queryNanos.addAndGet(nanos);
+                case DECODE -> counter.decodeNanos.addAndGet(nanos);
+                case RESOLVE -> counter.resolveNanos.addAndGet(nanos);
+                default -> {
+                }
+            }
+        }
+
+        IMetricsListener listener = DexkitMetrics.listener;
+        if (listener != null) listener.onStage(stage, key, nanos);
+    }
+
+    static void hit(@NonNull String key, boolean inMemory) {
+        if (!isEnabled) return;
+
+        KeyCounter counter = counterOf(key);
+        if (inMemory) counter.memoryHits.incrementAndGet();
+        else counter.hits.incrementAndGet();
+
+        IMetricsListener listener = DexkitMetrics.listener;
+        if (listener != null) listener.onHit(key, inMemory);
+    }
+
+    static void miss(@NonNull String key) {
+        if (!isEnabled) return;
+
+        counterOf(key).misses.incrementAndGet();
+
+        IMetricsListener listener = DexkitMetrics.listener;
+        if (listener != null) listener.onMiss(key);
+    }
+
+    @NonNull
+    private static KeyCounter counterOf(@NonNull String key) {
+        KeyCounter counter = keyCounters.get(key);
+        if (counter == null)
+            counter = keyCounters.computeIfAbsent(key, k -> new KeyCounter());
+        return counter;
+    }
+
+    @NonNull
+    private static AtomicLong[] newCounters() {
+        AtomicLong[] counters = new AtomicLong[Stage.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new AtomicLong();
+        }
+        return counters;
+    }
+
+    private static final class KeyCounter {
+        final AtomicLong memoryHits = new AtomicLong();
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong queryNanos = new AtomicLong();
+        final AtomicLong decodeNanos = new AtomicLong();
+        final AtomicLong resolveNanos = new AtomicLong();
+
+        @NonNull
+        KeyMetrics toMetrics() {
+            return new KeyMetrics(memoryHits.get(), hits.get(), misses.get(), queryNanos.get(), decodeNanos.get(), resolveNanos.get());
+        }
+    }
+
+    /**
+     * 单个 key 的统计数据，耗时单位为纳秒
+     */
+    public static final class KeyMetrics {
+        public final long memoryHits;
+        public final long hits;
+        public final long misses;
+        public final long queryNanos;
+        public final long decodeNanos;
+        public final long resolveNanos;
+
+        KeyMetrics(long memoryHits, long hits, long misses, long queryNanos, long decodeNanos, long resolveNanos) {
+            this.memoryHits = memoryHits;
+            this.hits = hits;
+            this.misses = misses;
+            this.queryNanos = queryNanos;
+            this.decodeNanos = decodeNanos;
+            this.resolveNanos = resolveNanos;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "memoryHits=" + memoryHits +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", query=" + toMillis(queryNanos) + "ms" +
+                ", decode=" + toMillis(decodeNanos) + "ms" +
+                ", resolve=" + toMillis(resolveNanos) + "ms";
+        }
+    }
+
+    /**
+     * 单个阶段的统计数据，耗时单位为纳秒
+     */
+    public static final class StageMetrics {
+        public final long count;
+        public final long nanos;
+
+        StageMetrics(long count, long nanos) {
+            this.count = count;
+            this.nanos = nanos;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "count=" + count + ", total=" + toMillis(nanos) + "ms";
+        }
+    }
+
+    /**
+     * 统计数据快照
+     */
+    public static final class Snapshot {
+        @NonNull
+        public final Map<String, KeyMetrics> keys;
+        @NonNull
+        public final Map<Stage, StageMetrics> stages;
+
+        Snapshot(@NonNull Map<String, KeyMetrics> keys, @NonNull Map<Stage, StageMetrics> stages) {
+            this.keys = keys;
+            this.stages = stages;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("[").append(TAG).append("]: Metrics\n");
+            stages.forEach((stage, metrics) ->
+                builder.append("  ").append(stage).append(": ").append(metrics).append('\n'));
+            keys.forEach((key, metrics) ->
+                builder.append("  ").append(key).append(": ").append(metrics).append('\n'));
+            return builder.toString();
+        }
+    }
+
+    @NonNull
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import org.luckypray.dexkit.DexKitBridge;
+import org.luckypray.dexkit.query.BatchFindClassUsingStrings;
+import org.luckypray.dexkit.query.BatchFindMethodUsingStrings;
+import org.luckypray.dexkit.result.BaseDataList;
+import org.luckypray.dexkit.result.ClassData;
+import org.luckypray.dexkit.result.ClassDataList;
+import org.luckypray.dexkit.result.MethodData;
+import org.luckypray.dexkit.result.MethodDataList;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * 常用的 dexkit 查找
+ * <p>
+ * 此处创建的查找在 {@link DexkitCache#findMembers(Map)} 中会被合并为 dexkit 的批量字符串查找，
+ * 多个 key 只需扫描一次 dex。
+ *
+ * @author 焕晨HChen
+ */
+public final class DexkitQueries {
+    private static final String TAG = "DexkitCache";
+
+    private DexkitQueries() {
+    }
+
+    /**
+     * 查找使用了全部指定字符串的唯一类
+     */
+    @NonNull
+    public static IDexkit<ClassData> classUsingStrings(@NonNull String... usingStrings) {
+        return new UsingStringsQuery<>(UsingStringsQuery.KIND_CLASS, true, usingStrings);
+    }
+
+    /**
+     * 查找使用了全部指定字符串的所有类
+     */
+    @NonNull
+    public static IDexkit<ClassDataList> classesUsingStrings(@NonNull String... usingStrings) {
+        return new UsingStringsQuery<>(UsingStringsQuery.KIND_CLASS, false, usingStrings);
+    }
+
+    /**
+     * 查找使用了全部指定字符串的唯一方法
+     */
+    @NonNull
+    public static IDexkit<MethodData> methodUsingStrings(@NonNull String... usingStrings) {
+        return new UsingStringsQuery<>(UsingStringsQuery.KIND_METHOD, true, usingStrings);
+    }
+
+    /**
+     * 查找使用了全部指定字符串的所有方法
+     */
+    @NonNull
+    public static IDexkit<MethodDataList> methodsUsingStrings(@NonNull String... usingStrings) {
+        return new UsingStringsQuery<>(UsingStringsQuery.KIND_METHOD, false, usingStrings);
+    }
+
+    /**
+     * 将可合并的查找以批量方式执行，已执行的查找会从 iDexkits 中移除
+     * <p>
+     * 批量查找本身失败时会记录日志，对应的查找会被保留，由调用者逐个执行。
+     */
+    static void batchQuery(@NonNull DexKitBridge bridge, @NonNull Map<String, IDexkit<?>> iDexkits,
+                           @NonNull BiConsumer<String, Object> consumer, @NonNull BiConsumer<String, Throwable> failure) {
+        Map<String, UsingStringsQuery<?>> classQueries = new LinkedHashMap<>();
+        Map<String, UsingStringsQuery<?>> methodQueries = new LinkedHashMap<>();
+        iDexkits.forEach((key, iDexkit) -> {
+            if (iDexkit instanceof UsingStringsQuery<?> query) {
+                if (query.kind == UsingStringsQuery.KIND_CLASS) classQueries.put(key, query);
+                else methodQueries.put(key, query);
+            }
+        });
+
+        if (!classQueries.isEmpty()) {
+            Map<String, ClassDataList> batchResults = null;
+            try {
+                BatchFindClassUsingStrings batch = BatchFindClassUsingStrings.create();
+                classQueries.forEach((key, query) -> batch.addSearchGroup(key, query.usingStrings));
+                batchResults = bridge.batchFindClassUsingStrings(batch);
+            } catch (Exception e) {
+                Log.w(TAG, "[DexkitCache]: Batch class finding failed, finding " + classQueries.size() + " keys one by one!!", e);
+            }
+            if (batchResults != null)
+                dispatch(classQueries, batchResults, iDexkits, consumer, failure);
+        }
+        if (!methodQueries.isEmpty()) {
+            Map<String, MethodDataList> batchResults = null;
+            try {
+                BatchFindMethodUsingStrings batch = BatchFindMethodUsingStrings.create();
+                methodQueries.forEach((key, query) -> batch.addSearchGroup(key, query.usingStrings));
+                batchResults = bridge.batchFindMethodUsingStrings(batch);
+            } catch (Exception e) {
+                Log.w(TAG, "[DexkitCache]: Batch method finding failed, finding " + methodQueries.size() + " keys one by one!!", e);
+            }
+            if (batchResults != null)
+                dispatch(methodQueries, batchResults, iDexkits, consumer, failure);
+        }
+    }
+
+    private static void dispatch(@NonNull Map<String, UsingStringsQuery<?>> queries, @NonNull Map<String, ? extends BaseDataList<?>> batchResults,
+                                 @NonNull Map<String, IDexkit<?>> iDexkits, @NonNull BiConsumer<String, Object> consumer,
+                                 @NonNull BiConsumer<String, Throwable> failure) {
+        queries.forEach((key, query) -> {
+            iDexkits.remove(key);
+            Object dexkit;
+            try {
+                dexkit = query.fromBatchResult(batchResults.get(key));
+            } catch (Exception e) {
+                failure.accept(key, e);
+                return;
+            }
+            consumer.accept(key, dexkit);
+        });
+    }
+
+    /**
+     * 基于字符串的查找，单独执行时同样使用批量接口，以保证与合并执行时的结果一致
+     */
+    static final class UsingStringsQuery<D> implements IDexkit<D> {
+        static final int KIND_CLASS = 0;
+        static final int KIND_METHOD = 1;
+        private static final String GROUP_NAME = "dexkit_cache";
+        final int kind;
+        final boolean single;
+        final List<String> usingStrings;
+
+        UsingStringsQuery(int kind, boolean single, @NonNull String... usingStrings) {
+            if (usingStrings.length == 0)
+                throw new IllegalArgumentException("[DexkitCache]: Using strings must not be empty!!");
+
+            this.kind = kind;
+            this.single = single;
+            this.usingStrings = Collections.unmodifiableList(Arrays.asList(usingStrings.clone()));
+        }
+
+        @NonNull
+        @Override
+        public D dexkit(@NonNull DexKitBridge bridge) {
+            if (kind == KIND_CLASS)
+                return fromBatchResult(bridge.batchFindClassUsingStrings(BatchFindClassUsingStrings.create()
+                    .addSearchGroup(GROUP_NAME, usingStrings)).get(GROUP_NAME));
+            else
+                return fromBatchResult(bridge.batchFindMethodUsingStrings(BatchFindMethodUsingStrings.create()
+                    .addSearchGroup(GROUP_NAME, usingStrings)).get(GROUP_NAME));
+        }
+
+        /**
+         * @noinspection unchecked
+         */
+        @NonNull
+        private D fromBatchResult(BaseDataList<?> list) {
+            if (Objects.isNull(list))
+                list = kind == KIND_CLASS ? new ClassDataList() : new MethodDataList();
+            return single ? (D) list.single() : (D) list;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * dexkit 会话，会话期间 DexKitBridge 不会被释放
+ * <p>
+ * 多个会话共用同一个 DexKitBridge，最后一个会话结束后才会释放，建议在 try-with-resources 中使用：
+ * <pre>{@code
+ * try (DexkitSession session = DexkitCache.openSession()) {
+ *     DexkitCache.findMember(...);
+ * }
+ * }</pre>
+ *
+ * @author 焕晨HChen
+ * @see DexkitCache#openSession()
+ * @see DexkitCacheInstance#openSession()
+ * @see DexkitCache#setBridgeIdleTimeout(long)
+ */
+public final class DexkitSession implements AutoCloseable {
+    private final DexkitCacheInstance instance;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    DexkitSession(DexkitCacheInstance instance) {
+        this.instance = instance;
+    }
+
+    /**
+     * 结束会话，重复调用无效果
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true))
+            instance.closeSession();
+    }
+}
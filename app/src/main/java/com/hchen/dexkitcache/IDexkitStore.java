@@ -0,0 +1,119 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * 缓存存储
+ * <p>
+ * 缓存条目以字节保存，版本、指纹等标记以字符串保存。
+ * <p>
+ * 实现需要线程安全，多个进程共用同一份缓存时还需要保证跨进程可见。
+ *
+ * @author 焕晨HChen
+ * @see MMKVStore
+ * @see MappedFileStore
+ */
+public interface IDexkitStore extends Closeable {
+    /**
+     * 读取条目
+     *
+     * @return 不存在时返回 null
+     */
+    @Nullable
+    byte[] get(@NonNull String key);
+
+    /**
+     * 读取条目，支持零拷贝的实现可以直接返回底层数据的只读视图
+     *
+     * @return 不存在时返回 null
+     */
+    @Nullable
+    default ByteBuffer getBuffer(@NonNull String key) {
+        byte[] value = get(key);
+        return value == null ? null : ByteBuffer.wrap(value);
+    }
+
+    default boolean contains(@NonNull String key) {
+        return get(key) != null;
+    }
+
+    void put(@NonNull String key, @NonNull byte[] value);
+
+    /**
+     * 一次写入多个条目，value 为 null 表示删除该条目
+     * <p>
+     * 仅是批量写入，不保证原子性：每个条目各自完整，但其他线程与进程可能先看到其中一部分修改。
+     * 需要标记一组写入已完成时，应在 commit 返回后再单独写入标记。
+     */
+    void commit(@NonNull Map<String, byte[]> values);
+
+    default void remove(@NonNull Collection<String> keys) {
+        Map<String, byte[]> values = new HashMap<>();
+        for (String key : keys) {
+            values.put(key, null);
+        }
+        commit(values);
+    }
+
+    /**
+     * 删除全部条目
+     */
+    void clear();
+
+    /**
+     * 获取全部条目的 key
+     */
+    @NonNull
+    Set<String> keys();
+
+    /**
+     * 遍历全部条目，支持批量读取的实现应一次读取全部条目
+     */
+    default void forEach(@NonNull BiConsumer<String, ByteBuffer> action) {
+        for (String key : keys()) {
+            ByteBuffer value = getBuffer(key);
+            if (value != null) action.accept(key, value);
+        }
+    }
+
+    @Nullable
+    default String getString(@NonNull String key) {
+        byte[] value = get(key);
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    default void putString(@NonNull String key, @NonNull String value) {
+        put(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    void close();
+}
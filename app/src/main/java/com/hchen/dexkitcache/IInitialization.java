@@ -20,16 +20,14 @@ package com.hchen.dexkitcache;
 
 import androidx.annotation.NonNull;
 
-import com.tencent.mmkv.MMKV;
-
 /**
- * MMKV 初始化时调用
+ * 缓存存储初始化时调用
  *
  * @author 焕晨HChen
  * */
 public interface IInitialization {
     /**
-     * 初始化 MMKV
+     * 初始化缓存存储
      * */
-    void initialization(@NonNull MMKV mmkv);
+    void initialization(@NonNull IDexkitStore store);
 }
@@ -0,0 +1,53 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 查找过程的指标监听
+ *
+ * @author 焕晨HChen
+ * @see DexkitMetrics#setListener(IMetricsListener)
+ */
+public interface IMetricsListener {
+    /**
+     * 缓存命中
+     *
+     * @param inMemory 是否命中进程内缓存
+     */
+    default void onHit(@NonNull String key, boolean inMemory) {
+    }
+
+    /**
+     * 缓存未命中，将执行 dexkit 查找
+     */
+    default void onMiss(@NonNull String key) {
+    }
+
+    /**
+     * 某个阶段执行完成
+     *
+     * @param key   阶段所属的 key，与 key 无关的阶段为 null
+     * @param nanos 耗时，单位纳秒
+     */
+    default void onStage(@NonNull DexkitMetrics.Stage stage, @Nullable String key, long nanos) {
+    }
+}
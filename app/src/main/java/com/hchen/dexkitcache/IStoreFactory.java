@@ -0,0 +1,39 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+/**
+ * 创建缓存存储
+ *
+ * @author 焕晨HChen
+ */
+public interface IStoreFactory {
+    /**
+     * 打开缓存存储
+     *
+     * @param path 缓存目录
+     * @param name 缓存文件名称
+     */
+    @NonNull
+    IDexkitStore create(@NonNull String path, @NonNull String name) throws IOException;
+}
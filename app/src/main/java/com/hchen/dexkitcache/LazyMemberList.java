@@ -0,0 +1,93 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 按需解析的成员列表
+ * <p>
+ * 只保存缓存条目中的描述符，元素在首次访问时才通过反射解析为 Class、Method 或 Field，之后直接返回已解析的实例。
+ * 只使用其中少数成员，或遍历时提前结束的场景无需解析全部成员。
+ * <p>
+ * 列表不可修改，可在多个线程中同时访问。元素无法解析时访问此元素会抛出异常，不会影响其他元素。
+ *
+ * @author 焕晨HChen
+ * @see DexkitCache#findMemberList(String, IDexkit)
+ */
+public final class LazyMemberList<T> extends AbstractList<T> implements RandomAccess {
+    @Nullable
+    private final String key;
+    private final byte type;
+    @NonNull
+    private final String[] descriptors;
+    @NonNull
+    private final DexkitCacheInstance instance;
+    private final AtomicReferenceArray<T> members;
+
+    LazyMemberList(@Nullable String key, @NonNull MemberRecord record, @NonNull DexkitCacheInstance instance) {
+        this.key = key;
+        this.type = record.type;
+        this.descriptors = record.descriptors;
+        this.instance = instance;
+        this.members = new AtomicReferenceArray<>(descriptors.length);
+    }
+
+    /**
+     * 获取元素，首次访问时解析
+     *
+     * @throws RuntimeException 元素无法解析
+     */
+    @NonNull
+    @Override
+    public T get(int index) {
+        T member = members.get(index);
+        if (member == null) {
+            member = instance.resolveLazily(key, type, descriptors[index]);
+            if (!members.compareAndSet(index, null, member))
+                member = members.get(index); // 其他线程已完成解析
+        }
+        return member;
+    }
+
+    @Override
+    public int size() {
+        return descriptors.length;
+    }
+
+    /**
+     * 元素的描述符，无需解析
+     */
+    @NonNull
+    public String getDescriptor(int index) {
+        return descriptors[index];
+    }
+
+    /**
+     * 此元素是否已解析
+     */
+    public boolean isResolved(int index) {
+        return members.get(index) != null;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.tencent.mmkv.MMKV;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基于 MMKV 多进程模式的缓存存储，默认使用
+ *
+ * @author 焕晨HChen
+ */
+public final class MMKVStore implements IDexkitStore {
+    @NonNull
+    private final MMKV mmkv;
+
+    public MMKVStore(@NonNull String path, @NonNull String name) {
+        MMKV.initialize(path, System::loadLibrary);
+        mmkv = MMKV.mmkvWithID(name, MMKV.MULTI_PROCESS_MODE);
+    }
+
+    /**
+     * 获取底层的 MMKV 实例
+     */
+    @NonNull
+    public MMKV getMMKV() {
+        return mmkv;
+    }
+
+    @Nullable
+    @Override
+    public byte[] get(@NonNull String key) {
+        return mmkv.decodeBytes(key);
+    }
+
+    @Override
+    public boolean contains(@NonNull String key) {
+        return mmkv.containsKey(key);
+    }
+
+    @Override
+    public void put(@NonNull String key, @NonNull byte[] value) {
+        mmkv.encode(key, value);
+    }
+
+    /**
+     * 写入期间持有 MMKV 的跨进程锁，只避免多个进程的批量写入互相交错；
+     * 读取不会等待此锁，因此其他进程可能先看到其中一部分条目
+     */
+    @Override
+    public void commit(@NonNull Map<String, byte[]> values) {
+        if (values.isEmpty()) return;
+
+        mmkv.lock();
+        try {
+            values.forEach((key, value) -> {
+                if (value == null) mmkv.removeValueForKey(key);
+                else mmkv.encode(key, value);
+            });
+        } finally {
+            mmkv.unlock();
+        }
+    }
+
+    @Override
+    public void remove(@NonNull Collection<String> keys) {
+        if (!keys.isEmpty())
+            mmkv.removeValuesForKeys(keys.toArray(new String[0]));
+    }
+
+    @Override
+    public void clear() {
+        mmkv.clear();
+    }
+
+    @NonNull
+    @Override
+    public Set<String> keys() {
+        String[] keys = mmkv.allKeys();
+        return keys == null ? new HashSet<>() : new HashSet<>(Arrays.asList(keys));
+    }
+
+    @Nullable
+    @Override
+    public String getString(@NonNull String key) {
+        return mmkv.getString(key, null);
+    }
+
+    @Override
+    public void putString(@NonNull String key, @NonNull String value) {
+        mmkv.putString(key, value);
+    }
+
+    @Override
+    public void close() {
+        mmkv.close();
+    }
+}
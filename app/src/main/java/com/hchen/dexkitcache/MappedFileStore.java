@@ -0,0 +1,437 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * 纯 Java 实现的缓存存储，不依赖任何 native 库
+ * <p>
+ * 缓存文件通过 FileChannel.map 映射到内存，条目以追加的方式写入，内存中只保存 key 到文件偏移的索引，
+ * 读取时直接返回映射内存的只读视图。
+ * <p>
+ * 文件格式：魔数(int) 代数(int) 有效长度(int) 当前代数的起始位置(int)，之后为若干条目：key 长度(int) key 的 UTF-8 字节 value 长度(int，-1 表示删除) value 字节。
+ * <p>
+ * 写入时持有文件锁，先写入条目再更新有效长度，因此其他进程只会看到完整提交的条目；clear() 会增加代数，使其他进程重新建立索引。
+ * <p>
+ * 已写入的条目不会被覆盖，clear() 也只是从当前末尾开始新的代数，因此返回的视图在释放锁之后依然不会被改写；被清除与覆盖的条目在压缩时回收。
+ * <p>
+ * 被覆盖与删除的条目超过有效条目时，会在后台把有效条目写入新文件并替换旧文件，旧文件的代数会被标记为已替换，其他进程随后会重新打开缓存文件。
+ * <p>
+ * 文件只会增长不会截断，同一进程内同一文件只应打开一个实例。
+ *
+ * @author 焕晨HChen
+ */
+public final class MappedFileStore implements IDexkitStore {
+    private static final int MAGIC = 0x444B4332; // DKC2
+    private static final int OFFSET_GENERATION = 4;
+    private static final int OFFSET_END = 8;
+    private static final int OFFSET_START = 12;
+    private static final int HEADER_SIZE = 16;
+    private static final int MIN_CAPACITY = 16 * 1024;
+    private static final int TOMBSTONE = -1;
+    // 文件已被压缩后的新文件替换
+    private static final int MOVED = -1;
+    private static final int COMPACT_THRESHOLD = 64 * 1024;
+    private static final Executor compactor = DexkitExecutors.newBoundedExecutor(1);
+    @NonNull
+    private final File file;
+    @NonNull
+    private FileChannel channel;
+    @NonNull
+    private MappedByteBuffer buffer;
+    // key -> value 偏移(高 32 位) 与长度(低 32 位)
+    private final Map<String, Long> index = new HashMap<>();
+    private int generation;
+    // 已建立索引的位置
+    private int position = HEADER_SIZE;
+    // 有效条目占用的字节数
+    private long live = 0;
+    private boolean compacting = false;
+    private boolean closed = false;
+
+    public MappedFileStore(@NonNull String path, @NonNull String name) throws IOException {
+        File dir = new File(path);
+        if (!dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("[DexkitCache]: Failed to create cache dir: " + path);
+
+        file = new File(dir, name + ".dkc");
+        channel = open(file);
+        try {
+            buffer = map(channel);
+            try (FileLock ignored = lock(false)) {
+                if (buffer.getInt(0) != MAGIC) {
+                    reset(0, HEADER_SIZE);
+                } else {
+                    try {
+                        load();
+                    } catch (UnexpectedException e) {
+                        reset(buffer.getInt(OFFSET_GENERATION) + 1, HEADER_SIZE); // 文件损坏，丢弃全部条目
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        compactIfNeed();
+    }
+
+    @Nullable
+    @Override
+    public synchronized byte[] get(@NonNull String key) {
+        ByteBuffer value = getBuffer(key);
+        if (value == null) return null;
+
+        byte[] bytes = new byte[value.remaining()];
+        value.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * 返回映射内存的只读视图，条目只会追加写入，视图之后不会被 clear() 或其他进程的写入改写
+     */
+    @Nullable
+    @Override
+    public synchronized ByteBuffer getBuffer(@NonNull String key) {
+        refresh();
+        Long slot = index.get(key);
+        return slot == null ? null : slice(slot);
+    }
+
+    @Override
+    public synchronized boolean contains(@NonNull String key) {
+        refresh();
+        return index.containsKey(key);
+    }
+
+    @Override
+    public void put(@NonNull String key, @NonNull byte[] value) {
+        commit(Collections.singletonMap(key, value));
+    }
+
+    @Override
+    public synchronized void commit(@NonNull Map<String, byte[]> values) {
+        if (values.isEmpty()) return;
+        ensureOpen();
+
+        List<String> keys = new ArrayList<>(values.size());
+        List<byte[]> keyBytes = new ArrayList<>(values.size());
+        List<byte[]> entries = new ArrayList<>(values.size());
+        long size = 0;
+        for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+            byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] value = entry.getValue();
+            keys.add(entry.getKey());
+            keyBytes.add(key);
+            entries.add(value);
+            size += 8 + key.length + (value == null ? 0 : value.length);
+        }
+
+        try (FileLock ignored = lock(false)) {
+            load();
+            long end = position + size;
+            if (end > Integer.MAX_VALUE)
+                throw new UnexpectedException("[DexkitCache]: Cache file is too large: " + end);
+            ensureCapacity((int) end);
+
+            ByteBuffer writer = buffer.duplicate();
+            writer.position(position);
+            for (int i = 0; i < keys.size(); i++) {
+                byte[] key = keyBytes.get(i);
+                byte[] value = entries.get(i);
+                writer.putInt(key.length);
+                writer.put(key);
+                if (value == null) {
+                    writer.putInt(TOMBSTONE);
+                    update(keys.get(i), key.length, null);
+                } else {
+                    writer.putInt(value.length);
+                    update(keys.get(i), key.length, ((long) writer.position() << 32) | value.length);
+                    writer.put(value);
+                }
+            }
+            position = (int) end;
+            buffer.putInt(OFFSET_END, position);
+        } catch (IOException e) {
+            throw new UnexpectedException("[DexkitCache]: Failed to write cache file!!", e);
+        }
+        compactIfNeed();
+    }
+
+    @Override
+    public synchronized void clear() {
+        ensureOpen();
+        try (FileLock ignored = lock(false)) {
+            try {
+                load();
+                reset(generation + 1, position); // 不覆盖旧条目，其他线程可能仍在读取其视图
+            } catch (UnexpectedException e) {
+                reset(buffer.getInt(OFFSET_GENERATION) + 1, HEADER_SIZE); // 文件损坏，丢弃全部条目
+            }
+        } catch (IOException e) {
+            throw new UnexpectedException("[DexkitCache]: Failed to clear cache file!!", e);
+        }
+        compactIfNeed();
+    }
+
+    @NonNull
+    @Override
+    public synchronized Set<String> keys() {
+        refresh();
+        return new HashSet<>(index.keySet());
+    }
+
+    /**
+     * 一次遍历映射内存中的全部条目，不会逐个查找
+     */
+    @Override
+    public synchronized void forEach(@NonNull BiConsumer<String, ByteBuffer> action) {
+        refresh();
+        index.forEach((key, slot) -> action.accept(key, slice(slot)));
+    }
+
+    /**
+     * 把有效条目写入新文件并替换旧文件，通常无需手动调用
+     */
+    public synchronized void compact() {
+        if (closed) return;
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileLock ignored = lock(false)) {
+            load();
+            if (temp.exists() && !temp.delete())
+                throw new IOException("[DexkitCache]: Failed to delete temp file: " + temp);
+
+            int end = (int) (HEADER_SIZE + live);
+            try (FileChannel target = FileChannel.open(temp.toPath(),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)) {
+                MappedByteBuffer writer = target.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(end, MIN_CAPACITY));
+                writer.putInt(MAGIC);
+                writer.putInt(0);
+                writer.putInt(end);
+                writer.putInt(HEADER_SIZE);
+                for (Map.Entry<String, Long> entry : index.entrySet()) {
+                    byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                    ByteBuffer value = slice(entry.getValue());
+                    writer.putInt(key.length);
+                    writer.put(key);
+                    writer.putInt(value.remaining());
+                    writer.put(value);
+                }
+                writer.force();
+            }
+            if (!temp.renameTo(file))
+                throw new IOException("[DexkitCache]: Failed to replace cache file: " + file);
+
+            buffer.putInt(OFFSET_GENERATION, MOVED);
+        } catch (IOException e) {
+            // noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            throw new UnexpectedException("[DexkitCache]: Failed to compact cache file!!", e);
+        }
+        refresh();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+
+        closed = true;
+        index.clear();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed)
+            throw new UnexpectedException("[DexkitCache]: Store is closed!!");
+    }
+
+    private void compactIfNeed() {
+        long garbage = position - HEADER_SIZE - live;
+        if (compacting || garbage < COMPACT_THRESHOLD || garbage < live) return;
+
+        compacting = true;
+        compactor.execute(() -> {
+            try {
+                compact();
+            } catch (UnexpectedException ignored) {
+                // 压缩失败不影响读写，下次写入时重试
+            } finally {
+                synchronized (this) {
+                    compacting = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * 其他进程写入后重新建立索引，未变化时只需读取文件头
+     */
+    private void refresh() {
+        ensureOpen();
+        if (buffer.getInt(OFFSET_GENERATION) == generation && buffer.getInt(OFFSET_END) == position)
+            return;
+
+        try (FileLock ignored = lock(true)) {
+            load();
+        } catch (IOException e) {
+            throw new UnexpectedException("[DexkitCache]: Failed to read cache file!!", e);
+        }
+    }
+
+    /**
+     * 获取文件锁，文件已被其他进程压缩替换时重新打开
+     */
+    @NonNull
+    private FileLock lock(boolean shared) throws IOException {
+        while (true) {
+            FileLock lock = shared ? channel.lock(0, HEADER_SIZE, true) : channel.lock();
+            if (buffer.getInt(OFFSET_GENERATION) != MOVED) return lock;
+
+            lock.release();
+            channel.close(); // 已返回的只读视图仍然有效
+            channel = open(file);
+            buffer = map(channel);
+            index.clear();
+            live = 0;
+            position = HEADER_SIZE;
+            generation = MOVED;
+        }
+    }
+
+    /**
+     * 从已建立索引的位置继续读取新条目，需要持有文件锁
+     */
+    private void load() throws IOException {
+        if (buffer.getInt(0) != MAGIC)
+            throw new UnexpectedException("[DexkitCache]: Corrupted cache file!!");
+
+        int generation = buffer.getInt(OFFSET_GENERATION);
+        int end = buffer.getInt(OFFSET_END);
+        if (generation != this.generation || end < position) {
+            int start = buffer.getInt(OFFSET_START);
+            if (start < HEADER_SIZE || start > end)
+                throw new UnexpectedException("[DexkitCache]: Corrupted cache file!!");
+            index.clear();
+            live = 0;
+            position = start;
+            this.generation = generation;
+        }
+        if (end > buffer.capacity()) {
+            if (end > channel.size())
+                throw new UnexpectedException("[DexkitCache]: Corrupted cache file!!");
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+
+        while (position < end) {
+            int keyLength = buffer.getInt(position);
+            if (keyLength < 0 || (long) position + 8 + keyLength > end)
+                throw new UnexpectedException("[DexkitCache]: Corrupted cache file!!");
+
+            byte[] key = new byte[keyLength];
+            ByteBuffer reader = buffer.duplicate();
+            reader.position(position + 4);
+            reader.get(key);
+            int valueLength = reader.getInt();
+            int valueOffset = reader.position();
+            if (valueLength == TOMBSTONE) {
+                update(new String(key, StandardCharsets.UTF_8), keyLength, null);
+                position = valueOffset;
+            } else {
+                if (valueLength < 0 || (long) valueOffset + valueLength > end)
+                    throw new UnexpectedException("[DexkitCache]: Corrupted cache file!!");
+                update(new String(key, StandardCharsets.UTF_8), keyLength, ((long) valueOffset << 32) | valueLength);
+                position = valueOffset + valueLength;
+            }
+        }
+    }
+
+    private void update(@NonNull String key, int keyLength, @Nullable Long slot) {
+        Long old = slot == null ? index.remove(key) : index.put(key, slot);
+        if (old != null) live -= 8 + keyLength + (int) (long) old;
+        if (slot != null) live += 8 + keyLength + (int) (long) slot;
+    }
+
+    /**
+     * 开始新的代数，新条目从 start 开始写入
+     */
+    private void reset(int generation, int start) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(OFFSET_START, start);
+        buffer.putInt(OFFSET_END, start);
+        buffer.putInt(OFFSET_GENERATION, generation);
+        index.clear();
+        live = 0;
+        position = start;
+        this.generation = generation;
+    }
+
+    @NonNull
+    private ByteBuffer slice(long slot) {
+        int offset = (int) (slot >>> 32);
+        int length = (int) slot;
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.limit(offset + length);
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    private void ensureCapacity(int required) throws IOException {
+        if (required <= buffer.capacity()) return;
+
+        long capacity = Math.min(Math.max(required, (long) buffer.capacity() * 2), Integer.MAX_VALUE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    @NonNull
+    private static FileChannel open(@NonNull File file) throws IOException {
+        return FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+    }
+
+    @NonNull
+    private static MappedByteBuffer map(@NonNull FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("[DexkitCache]: Cache file is too large: " + size);
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, MIN_CAPACITY));
+    }
+}
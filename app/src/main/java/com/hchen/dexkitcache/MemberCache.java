@@ -0,0 +1,65 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已解析成员的进程内缓存
+ * <p>
+ * 以 key 为索引保存已解析的 Class、Method、Field 及其数组，命中时只需一次无锁查表。
+ * <p>
+ * 每个 {@link DexkitCacheInstance} 只绑定一个 ClassLoader 并持有自己的缓存，
+ * 因此成员只会在实例存在期间保持其 ClassLoader 可达，实例被释放时随 {@link #clear()} 一同释放。
+ *
+ * @author 焕晨HChen
+ */
+final class MemberCache {
+    private final ConcurrentHashMap<String, Object> members = new ConcurrentHashMap<>();
+
+    /**
+     * 获取已解析的成员
+     * <p>
+     * 单个成员直接返回；数组会被浅复制后返回，防止调用者修改缓存内容，
+     * 不希望复制时可使用 {@link DexkitCacheInstance#findMemberList(String, IDexkit)}。
+     *
+     * @return 未命中时返回 null
+     * @noinspection unchecked
+     */
+    @Nullable
+    <T> T get(@NonNull String key) {
+        Object member = members.get(key);
+        if (member instanceof Object[] array)
+            return (T) array.clone();
+        return (T) member;
+    }
+
+    void put(@NonNull String key, @NonNull Object member) {
+        if (member instanceof Object[] array)
+            member = array.clone();
+        members.put(key, member);
+    }
+
+    void clear() {
+        members.clear();
+    }
+}
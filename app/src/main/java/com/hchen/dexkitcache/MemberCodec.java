@@ -0,0 +1,478 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 缓存条目的二进制编码
+ * <p>
+ * 格式：魔数(1) 版本(1) 类型(1，最高位表示列表) 数量(varint) 描述符[长度(varint) UTF-8 字节]
+ * <p>
+ * 版本 2 在末尾追加：依赖数量(varint) 依赖的 dex 名称[长度(varint) UTF-8 字节]
+ * <p>
+ * 版本 3 用于较大的列表，描述符按字典序排序后拆分为类型与其余文本：
+ * 魔数(1) 版本(1) 类型(1) 类型表[数量(varint) 类型描述符] 数量(varint) 是否记录原始顺序(varint，为 1 时后跟每个位置的原始下标)
+ * 描述符[与前一个描述符相同的片段数(varint) 其余片段数(varint) 片段]，之后与版本 2 相同追加依赖。
+ * 片段为 (类型表下标 << 1 | 1)，或 (UTF-8 长度 << 1) 与文本字节，同一个类的成员只需记录一次类名。
+ * <p>
+ * 版本 4 用于查找没有结果的条目：魔数(1) 版本(1) 类型(1) 过期时间(8) 依赖。
+ *
+ * @author 焕晨HChen
+ */
+final class MemberCodec {
+    static final byte MAGIC = (byte) 0xDC;
+    static final byte VERSION_1 = 1;
+    static final byte VERSION_2 = 2;
+    static final byte VERSION_3 = 3;
+    static final byte VERSION_4 = 4;
+    private static final int FLAG_LIST = 0x80;
+    // 列表少于此数量时不尝试压缩
+    private static final int COMPRESS_THRESHOLD = 4;
+
+    private MemberCodec() {
+    }
+
+    /**
+     * 是否为二进制格式的缓存条目，其他值为 {@link IInitialization} 等写入的字符串
+     */
+    static boolean isBinary(@NonNull byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == MAGIC;
+    }
+
+    static boolean isBinary(@NonNull ByteBuffer buffer) {
+        return buffer.hasRemaining() && buffer.get(buffer.position()) == MAGIC;
+    }
+
+    /**
+     * 编码缓存条目，较大的列表在压缩后更小时使用版本 3
+     */
+    @NonNull
+    static byte[] encode(@NonNull MemberRecord record) {
+        if (record.isNone())
+            return encodeNone(record);
+
+        byte[] plain = encodePlain(record);
+        if (!record.isList || record.descriptors.length < COMPRESS_THRESHOLD)
+            return plain;
+
+        byte[] compressed = encodeCompressed(record);
+        return compressed.length < plain.length ? compressed : plain;
+    }
+
+    @NonNull
+    private static byte[] encodePlain(@NonNull MemberRecord record) {
+        byte[][] descriptors = toUtf8(record.descriptors);
+        byte[][] dependencies = toUtf8(record.dependencies);
+        ByteBuffer buffer = ByteBuffer.allocate(3 + sizeOf(descriptors) + sizeOf(dependencies));
+        buffer.put(MAGIC);
+        buffer.put(VERSION_2);
+        buffer.put((byte) (record.isList ? record.type | FLAG_LIST : record.type));
+        putStrings(buffer, descriptors);
+        putStrings(buffer, dependencies);
+        return buffer.array();
+    }
+
+    @NonNull
+    private static byte[] encodeNone(@NonNull MemberRecord record) {
+        byte[][] dependencies = toUtf8(record.dependencies);
+        ByteBuffer buffer = ByteBuffer.allocate(3 + Long.BYTES + sizeOf(dependencies));
+        buffer.put(MAGIC);
+        buffer.put(VERSION_4);
+        buffer.put(record.type);
+        buffer.putLong(record.expiresAt);
+        putStrings(buffer, dependencies);
+        return buffer.array();
+    }
+
+    @NonNull
+    private static byte[] encodeCompressed(@NonNull MemberRecord record) {
+        int count = record.descriptors.length;
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> record.descriptors[a].compareTo(record.descriptors[b]));
+
+        Map<String, Integer> types = new LinkedHashMap<>();
+        List<List<String>> tokens = new ArrayList<>(count);
+        boolean sorted = true;
+        for (int i = 0; i < count; i++) {
+            if (order[i] != i) sorted = false;
+            List<String> descriptorTokens = tokenize(record.descriptors[order[i]]);
+            for (int j = 0; j < descriptorTokens.size(); j += 2) {
+                String type = descriptorTokens.get(j + 1);
+                if (type != null && !types.containsKey(type))
+                    types.put(type, types.size());
+            }
+            tokens.add(descriptorTokens);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(MAGIC);
+        out.write(VERSION_3);
+        out.write(record.type | FLAG_LIST);
+        putVarint(out, types.size());
+        for (String type : types.keySet()) {
+            putString(out, type);
+        }
+
+        putVarint(out, count);
+        putVarint(out, sorted ? 0 : 1);
+        if (!sorted) {
+            for (int index : order) {
+                putVarint(out, index);
+            }
+        }
+
+        List<String> previous = Collections.emptyList();
+        for (List<String> current : tokens) {
+            int shared = 0;
+            while (shared < previous.size() && shared < current.size() &&
+                Objects.equals(previous.get(shared), current.get(shared)) &&
+                Objects.equals(previous.get(shared + 1), current.get(shared + 1))) {
+                shared += 2;
+            }
+            putVarint(out, shared / 2);
+            putVarint(out, (current.size() - shared) / 2);
+            for (int i = shared; i < current.size(); i += 2) {
+                String type = current.get(i + 1);
+                if (type != null) {
+                    putVarint(out, types.get(type) << 1 | 1);
+                } else {
+                    byte[] bytes = current.get(i).getBytes(StandardCharsets.UTF_8);
+                    putVarint(out, bytes.length << 1);
+                    out.write(bytes, 0, bytes.length);
+                }
+            }
+            previous = current;
+        }
+
+        putVarint(out, record.dependencies.length);
+        for (String dependency : record.dependencies) {
+            putString(out, dependency);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 将描述符拆分为类型与其余文本，按 [文本, null] 或 [null, 类型] 成对排列
+     * <p>
+     * 无法识别的部分作为文本保留，因此拼接后总是与原描述符相同。
+     */
+    @NonNull
+    private static List<String> tokenize(@NonNull String descriptor) {
+        List<String> tokens = new ArrayList<>();
+        int length = descriptor.length();
+        int position = typeEnd(descriptor, 0);
+        if (position < 0) {
+            addText(tokens, descriptor);
+            return tokens;
+        }
+
+        addType(tokens, descriptor.substring(0, position));
+        if (position == length) return tokens;
+
+        int nameEnd = -1;
+        if (descriptor.startsWith("->", position)) {
+            for (int i = position + 2; i < length; i++) {
+                char c = descriptor.charAt(i);
+                if (c == '(' || c == ':') {
+                    nameEnd = i;
+                    break;
+                }
+            }
+        }
+        if (nameEnd < 0) {
+            addText(tokens, descriptor.substring(position));
+            return tokens;
+        }
+
+        addText(tokens, descriptor.substring(position, nameEnd + 1));
+        position = nameEnd + 1;
+        if (descriptor.charAt(nameEnd) == '(') {
+            while (position < length && descriptor.charAt(position) != ')') {
+                int end = typeEnd(descriptor, position);
+                if (end < 0) break;
+                addType(tokens, descriptor.substring(position, end));
+                position = end;
+            }
+            if (position < length && descriptor.charAt(position) == ')') {
+                addText(tokens, ")");
+                position++;
+            }
+        }
+
+        int end = typeEnd(descriptor, position);
+        if (end == length) {
+            addType(tokens, descriptor.substring(position));
+        } else if (position < length) {
+            addText(tokens, descriptor.substring(position));
+        }
+        return tokens;
+    }
+
+    /**
+     * 类型描述符的结束位置，不是类型描述符时返回 -1
+     */
+    private static int typeEnd(@NonNull String descriptor, int position) {
+        int length = descriptor.length();
+        while (position < length && descriptor.charAt(position) == '[') {
+            position++;
+        }
+        if (position >= length) return -1;
+
+        char c = descriptor.charAt(position);
+        if (c == 'L') {
+            int end = descriptor.indexOf(';', position);
+            return end < 0 ? -1 : end + 1;
+        }
+        return "ZBSCIJFDV".indexOf(c) >= 0 ? position + 1 : -1;
+    }
+
+    private static void addText(@NonNull List<String> tokens, @NonNull String text) {
+        tokens.add(text);
+        tokens.add(null);
+    }
+
+    private static void addType(@NonNull List<String> tokens, @NonNull String type) {
+        tokens.add(null);
+        tokens.add(type);
+    }
+
+    private static void putString(@NonNull ByteArrayOutputStream out, @NonNull String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    @NonNull
+    private static byte[][] toUtf8(@NonNull String[] strings) {
+        byte[][] utf8 = new byte[strings.length][];
+        for (int i = 0; i < utf8.length; i++) {
+            utf8[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return utf8;
+    }
+
+    private static int sizeOf(@NonNull byte[][] utf8) {
+        int size = varintSize(utf8.length);
+        for (byte[] bytes : utf8) {
+            size += varintSize(bytes.length) + bytes.length;
+        }
+        return size;
+    }
+
+    private static void putStrings(@NonNull ByteBuffer buffer, @NonNull byte[][] utf8) {
+        putVarint(buffer, utf8.length);
+        for (byte[] bytes : utf8) {
+            putVarint(buffer, bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    @NonNull
+    private static String[] getStrings(@NonNull ByteBuffer buffer) {
+        // 每个字符串至少占用一个长度字节，数量超过剩余字节说明记录已损坏，避免按损坏的数量分配数组
+        int count = getVarint(buffer);
+        if (count > buffer.remaining())
+            throw new UnexpectedException("[DexkitCache]: Truncated member record!!");
+
+        String[] strings = new String[count];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = getString(buffer, getVarint(buffer));
+        }
+        return strings;
+    }
+
+    @NonNull
+    static MemberRecord decode(@NonNull byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    @NonNull
+    static MemberRecord decode(@NonNull ByteBuffer buffer) {
+        try {
+            if (buffer.get() != MAGIC)
+                throw new UnexpectedException("[DexkitCache]: Illegal member record magic!!");
+            byte version = buffer.get();
+            if (version < VERSION_1 || version > VERSION_4)
+                throw new UnexpectedException("[DexkitCache]: Unsupported member record version: " + version);
+
+            int tag = buffer.get() & 0xFF;
+            if (version == VERSION_4) {
+                if (tag != MemberRecord.TYPE_NONE)
+                    throw new UnexpectedException("[DexkitCache]: Illegal none member record type: " + tag);
+                long expiresAt = buffer.getLong();
+                return MemberRecord.none(expiresAt).withDependencies(getStrings(buffer));
+            }
+
+            String[] descriptors = version == VERSION_3 ? getCompressedStrings(buffer) : getStrings(buffer);
+            String[] dependencies = version >= VERSION_2 ? getStrings(buffer) : new String[0];
+            return new MemberRecord((byte) (tag & ~FLAG_LIST), (tag & FLAG_LIST) != 0, descriptors, dependencies);
+        } catch (RuntimeException e) {
+            if (e instanceof UnexpectedException) throw e;
+            throw new UnexpectedException("[DexkitCache]: Illegal member record!!", e);
+        }
+    }
+
+    /**
+     * 解码版本 3 的描述符，片段直接追加到同一个 StringBuilder 中，每个描述符只创建一次字符串
+     */
+    @NonNull
+    private static String[] getCompressedStrings(@NonNull ByteBuffer buffer) {
+        String[] types = getStrings(buffer);
+        int count = getVarint(buffer);
+        if (count > buffer.remaining())
+            throw new UnexpectedException("[DexkitCache]: Truncated member record!!");
+
+        int[] order = null;
+        if (getVarint(buffer) != 0) {
+            order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = getVarint(buffer);
+                if (order[i] >= count)
+                    throw new UnexpectedException("[DexkitCache]: Illegal descriptor order in member record!!");
+            }
+        }
+
+        String[] descriptors = new String[count];
+        StringBuilder builder = new StringBuilder();
+        // 前一个描述符中各个片段的结束位置
+        int[] ends = new int[8];
+        int tokens = 0;
+        for (int i = 0; i < count; i++) {
+            int shared = getVarint(buffer);
+            if (shared > tokens)
+                throw new UnexpectedException("[DexkitCache]: Illegal shared prefix in member record!!");
+            builder.setLength(shared == 0 ? 0 : ends[shared - 1]);
+            tokens = shared + getVarint(buffer);
+            if (tokens > ends.length)
+                ends = Arrays.copyOf(ends, Math.max(tokens, ends.length * 2));
+
+            for (int j = shared; j < tokens; j++) {
+                int token = getVarint(buffer);
+                if ((token & 1) != 0) {
+                    int index = token >>> 1;
+                    if (index >= types.length)
+                        throw new UnexpectedException("[DexkitCache]: Illegal type index in member record!!");
+                    builder.append(types[index]);
+                } else {
+                    appendText(builder, buffer, token >>> 1);
+                }
+                ends[j] = builder.length();
+            }
+
+            int index = order == null ? i : order[i];
+            if (descriptors[index] != null)
+                throw new UnexpectedException("[DexkitCache]: Illegal descriptor order in member record!!");
+            descriptors[index] = builder.toString();
+        }
+        return descriptors;
+    }
+
+    private static void appendText(@NonNull StringBuilder builder, @NonNull ByteBuffer buffer, int length) {
+        if (length > buffer.remaining())
+            throw new UnexpectedException("[DexkitCache]: Truncated member record!!");
+
+        int position = buffer.position();
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(position + i) < 0) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            for (int i = 0; i < length; i++) {
+                builder.append((char) buffer.get(position + i));
+            }
+            buffer.position(position + length);
+        } else {
+            builder.append(getString(buffer, length));
+        }
+    }
+
+    @NonNull
+    private static String getString(@NonNull ByteBuffer buffer, int length) {
+        if (length > buffer.remaining())
+            throw new UnexpectedException("[DexkitCache]: Truncated member record!!");
+
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static void putVarint(@NonNull ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static void putVarint(@NonNull ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static int getVarint(@NonNull ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0)
+                    throw new UnexpectedException("[DexkitCache]: Illegal varint in member record!!");
+                return value;
+            }
+        }
+        throw new UnexpectedException("[DexkitCache]: Illegal varint in member record!!");
+    }
+}
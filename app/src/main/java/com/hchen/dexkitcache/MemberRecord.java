@@ -0,0 +1,152 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 缓存条目，记录成员类型与其 dexkit 描述符
+ * <p>
+ * 类型为 {@link #TYPE_NONE} 的条目表示查找没有结果，不包含描述符。
+ *
+ * @author 焕晨HChen
+ */
+final class MemberRecord {
+    static final byte TYPE_NONE = 0;
+    static final byte TYPE_CLASS = 1;
+    static final byte TYPE_METHOD = 2;
+    static final byte TYPE_FIELD = 3;
+    final byte type;
+    final boolean isList;
+    @NonNull
+    final String[] descriptors;
+    // 查找结果所在的 dex，为空表示未知
+    @NonNull
+    final String[] dependencies;
+    // 未找到结果的过期时间，为 0 表示不过期，仅用于 TYPE_NONE
+    final long expiresAt;
+
+    MemberRecord(byte type, boolean isList, @NonNull String[] descriptors) {
+        this(type, isList, descriptors, new String[0]);
+    }
+
+    MemberRecord(byte type, boolean isList, @NonNull String[] descriptors, @NonNull String[] dependencies) {
+        this(type, isList, descriptors, dependencies, 0);
+    }
+
+    private MemberRecord(byte type, boolean isList, @NonNull String[] descriptors, @NonNull String[] dependencies, long expiresAt) {
+        if (type == TYPE_NONE) {
+            if (isList || descriptors.length != 0)
+                throw new UnexpectedException("[DexkitCache]: None member record must not have descriptors!!");
+        } else {
+            if (type != TYPE_CLASS && type != TYPE_METHOD && type != TYPE_FIELD)
+                throw new UnexpectedException("[DexkitCache]: Unknown member type: " + type);
+            if (!isList && descriptors.length != 1)
+                throw new UnexpectedException("[DexkitCache]: Single member record must have exactly one descriptor!!");
+        }
+
+        this.type = type;
+        this.isList = isList;
+        this.descriptors = descriptors;
+        this.dependencies = dependencies;
+        this.expiresAt = expiresAt;
+    }
+
+    @NonNull
+    MemberRecord withDependencies(@NonNull String[] dependencies) {
+        return new MemberRecord(type, isList, descriptors, dependencies, expiresAt);
+    }
+
+    /**
+     * 是否表示查找没有结果
+     */
+    boolean isNone() {
+        return type == TYPE_NONE;
+    }
+
+    /**
+     * 未找到结果的条目是否已过期
+     */
+    boolean isExpired() {
+        return expiresAt != 0 && System.currentTimeMillis() >= expiresAt;
+    }
+
+    /**
+     * 获取全部描述符对应的类描述符，方法与字段取其声明类
+     */
+    @NonNull
+    String[] classDescriptors() {
+        String[] classes = new String[descriptors.length];
+        for (int i = 0; i < descriptors.length; i++) {
+            String descriptor = descriptors[i];
+            int index = descriptor.indexOf("->");
+            classes[i] = index < 0 ? descriptor : descriptor.substring(0, index);
+        }
+        return classes;
+    }
+
+    @NonNull
+    static MemberRecord single(byte type, @NonNull String descriptor) {
+        return new MemberRecord(type, false, new String[]{descriptor});
+    }
+
+    @NonNull
+    static MemberRecord list(byte type, @NonNull List<String> descriptors) {
+        return new MemberRecord(type, true, descriptors.toArray(new String[0]));
+    }
+
+    /**
+     * @param expiresAt 过期时间，为 0 表示不过期
+     */
+    @NonNull
+    static MemberRecord none(long expiresAt) {
+        return new MemberRecord(TYPE_NONE, false, new String[0], new String[0], expiresAt);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "MemberRecord{" +
+            "type=" + type +
+            ", isList=" + isList +
+            ", descriptors=" + Arrays.toString(descriptors) +
+            ", dependencies=" + Arrays.toString(dependencies) +
+            ", expiresAt=" + expiresAt +
+            '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MemberRecord that)) return false;
+        return type == that.type &&
+            isList == that.isList &&
+            Arrays.equals(descriptors, that.descriptors) &&
+            Arrays.equals(dependencies, that.dependencies) &&
+            expiresAt == that.expiresAt;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 31 * (31 * (31 * type + (isList ? 1 : 0)) + Arrays.hashCode(descriptors)) + Arrays.hashCode(dependencies);
+        return 31 * result + Long.hashCode(expiresAt);
+    }
+}
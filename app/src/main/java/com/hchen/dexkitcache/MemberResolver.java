@@ -0,0 +1,183 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 按声明类建立索引的成员解析器
+ * <p>
+ * 每个类只加载一次，并通过一次 getDeclaredMethods()、getDeclaredFields() 建立描述符到成员的索引，
+ * 同一个类的其他成员以及之后的 key 只需查表，无需重复加载与遍历。
+ * <p>
+ * 索引以 ClassLoader 区分，ClassLoader 以弱引用持有，索引以软引用持有。
+ * 只有声明在该类中的成员会被索引，找不到时返回 null，由调用者回退到 dexkit 的解析方式。
+ *
+ * @author 焕晨HChen
+ */
+final class MemberResolver {
+    private final Map<ClassLoader, Map<String, SoftReference<ClassIndex>>> indexes = new WeakHashMap<>();
+
+    /**
+     * @return 描述符不是对象类型时返回 null
+     */
+    @Nullable
+    Class<?> findClass(@NonNull ClassLoader classLoader, @NonNull String descriptor) throws ClassNotFoundException {
+        ClassIndex index = getClassIndex(classLoader, descriptor);
+        return index == null ? null : index.clazz;
+    }
+
+    /**
+     * @param descriptor 例如 Lcom/example/Test;->test(ILjava/lang/String;)V
+     * @return 未声明在该类中时返回 null
+     */
+    @Nullable
+    Method findMethod(@NonNull ClassLoader classLoader, @NonNull String descriptor) throws ClassNotFoundException {
+        int index = descriptor.indexOf("->");
+        if (index < 0) return null;
+
+        ClassIndex classIndex = getClassIndex(classLoader, descriptor.substring(0, index));
+        return classIndex == null ? null : classIndex.method(descriptor.substring(index + 2));
+    }
+
+    /**
+     * @param descriptor 例如 Lcom/example/Test;->test:I
+     * @return 未声明在该类中时返回 null
+     */
+    @Nullable
+    Field findField(@NonNull ClassLoader classLoader, @NonNull String descriptor) throws ClassNotFoundException {
+        int index = descriptor.indexOf("->");
+        if (index < 0) return null;
+
+        ClassIndex classIndex = getClassIndex(classLoader, descriptor.substring(0, index));
+        return classIndex == null ? null : classIndex.field(descriptor.substring(index + 2));
+    }
+
+    synchronized void clear() {
+        indexes.clear();
+    }
+
+    @Nullable
+    private ClassIndex getClassIndex(@NonNull ClassLoader classLoader, @NonNull String descriptor) throws ClassNotFoundException {
+        if (descriptor.length() < 3 || descriptor.charAt(0) != 'L' || descriptor.charAt(descriptor.length() - 1) != ';')
+            return null;
+
+        synchronized (this) {
+            Map<String, SoftReference<ClassIndex>> classes = indexes.get(classLoader);
+            if (classes != null) {
+                SoftReference<ClassIndex> reference = classes.get(descriptor);
+                ClassIndex index = reference == null ? null : reference.get();
+                if (index != null) return index;
+            }
+        }
+
+        // 在锁外加载类，避免类初始化期间阻塞其他线程
+        String name = descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+        ClassIndex index = new ClassIndex(classLoader.loadClass(name));
+        synchronized (this) {
+            Map<String, SoftReference<ClassIndex>> classes = indexes.get(classLoader);
+            if (classes == null) {
+                classes = new HashMap<>();
+                indexes.put(classLoader, classes);
+            }
+            SoftReference<ClassIndex> reference = classes.get(descriptor);
+            ClassIndex existing = reference == null ? null : reference.get();
+            if (existing != null) return existing;
+
+            classes.put(descriptor, new SoftReference<>(index));
+        }
+        return index;
+    }
+
+    @NonNull
+    static String descriptor(@NonNull Class<?> clazz) {
+        if (clazz.isPrimitive()) {
+            if (clazz == void.class) return "V";
+            if (clazz == boolean.class) return "Z";
+            if (clazz == byte.class) return "B";
+            if (clazz == char.class) return "C";
+            if (clazz == short.class) return "S";
+            if (clazz == int.class) return "I";
+            if (clazz == long.class) return "J";
+            if (clazz == float.class) return "F";
+            return "D";
+        }
+        if (clazz.isArray()) return clazz.getName().replace('.', '/');
+        return "L" + clazz.getName().replace('.', '/') + ";";
+    }
+
+    /**
+     * 单个类的成员索引，首次查找方法或字段时才会建立
+     */
+    private static final class ClassIndex {
+        @NonNull
+        final Class<?> clazz;
+        // name(参数)返回值 -> Method
+        private Map<String, Method> methods;
+        // name:类型 -> Field
+        private Map<String, Field> fields;
+
+        ClassIndex(@NonNull Class<?> clazz) {
+            this.clazz = clazz;
+        }
+
+        @Nullable
+        synchronized Method method(@NonNull String signature) {
+            if (methods == null) {
+                Method[] declared = clazz.getDeclaredMethods();
+                methods = new HashMap<>(declared.length * 2);
+                StringBuilder builder = new StringBuilder();
+                for (Method method : declared) {
+                    // 与 dexkit 的 getMethodInstance 一致，否则调用私有方法时会抛出 IllegalAccessException
+                    method.setAccessible(true);
+                    builder.setLength(0);
+                    builder.append(method.getName()).append('(');
+                    for (Class<?> parameter : method.getParameterTypes()) {
+                        builder.append(descriptor(parameter));
+                    }
+                    builder.append(')').append(descriptor(method.getReturnType()));
+                    methods.put(builder.toString(), method);
+                }
+            }
+            return methods.get(signature);
+        }
+
+        @Nullable
+        synchronized Field field(@NonNull String signature) {
+            if (fields == null) {
+                Field[] declared = clazz.getDeclaredFields();
+                fields = new HashMap<>(declared.length * 2);
+                for (Field field : declared) {
+                    // 与 dexkit 的 getFieldInstance 一致，否则读写私有字段时会抛出 IllegalAccessException
+                    field.setAccessible(true);
+                    fields.put(field.getName() + ":" + descriptor(field.getType()), field);
+                }
+            }
+            return fields.get(signature);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 批量查找的结果
+ * <p>
+ * 每个 key 要么查找成功并对应一个成员，要么对应一个失败原因。
+ *
+ * @author 焕晨HChen
+ */
+public final class MemberResults {
+    private final Map<String, Object> members = new LinkedHashMap<>();
+    private final Map<String, Throwable> failures = new LinkedHashMap<>();
+
+    MemberResults() {
+    }
+
+    void putMember(@NonNull String key, @NonNull Object member) {
+        failures.remove(key);
+        members.put(key, member);
+    }
+
+    void putFailure(@NonNull String key, @NonNull Throwable throwable) {
+        if (!members.containsKey(key))
+            failures.put(key, throwable);
+    }
+
+    void putAll(@NonNull MemberResults results) {
+        results.members.forEach(this::putMember);
+        results.failures.forEach(this::putFailure);
+    }
+
+    /**
+     * 此 key 是否查找成功
+     */
+    public boolean isSuccess(@NonNull String key) {
+        return members.containsKey(key);
+    }
+
+    /**
+     * 获取查找到的成员，可能是 Class、Method、Field 或其数组
+     *
+     * @return 查找失败时返回 null
+     * @noinspection unchecked
+     */
+    @Nullable
+    public <T> T get(@NonNull String key) {
+        return (T) members.get(key);
+    }
+
+    @Nullable
+    public Class<?> getMemberClass(@NonNull String key) {
+        return get(key);
+    }
+
+    @Nullable
+    public Method getMethod(@NonNull String key) {
+        return get(key);
+    }
+
+    @Nullable
+    public Field getField(@NonNull String key) {
+        return get(key);
+    }
+
+    @Nullable
+    public Class<?>[] getMemberClasses(@NonNull String key) {
+        return get(key);
+    }
+
+    @Nullable
+    public Method[] getMethods(@NonNull String key) {
+        return get(key);
+    }
+
+    @Nullable
+    public Field[] getFields(@NonNull String key) {
+        return get(key);
+    }
+
+    /**
+     * 获取此 key 查找失败的原因
+     */
+    @Nullable
+    public Throwable getFailure(@NonNull String key) {
+        return failures.get(key);
+    }
+
+    @NonNull
+    public Map<String, Object> getMembers() {
+        return Collections.unmodifiableMap(members);
+    }
+
+    @NonNull
+    public Map<String, Throwable> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "MemberResults{" +
+            "members=" + members.keySet() +
+            ", failures=" + failures +
+            '}';
+    }
+}
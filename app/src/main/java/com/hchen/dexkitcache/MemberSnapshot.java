@@ -0,0 +1,153 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 缓存快照，打开缓存存储时一次性读取并解码全部条目
+ * <p>
+ * 描述符与依赖被去重后保存在同一个字符串表中，条目只记录字符串表的下标：
+ * 每个条目在 layout 中依次保存 描述符数量 描述符下标... 依赖数量 依赖下标...
+ * <p>
+ * 快照本身不会更新，写入新条目时需要调用 {@link #remove(String)}，之后该 key 会从缓存存储中读取。
+ *
+ * @author 焕晨HChen
+ */
+final class MemberSnapshot {
+    private static final int FLAG_LIST = 0x80;
+    // key -> 条目下标
+    private final Map<String, Integer> entries;
+    private final byte[] tags;
+    private final int[] starts;
+    private final int[] layout;
+    private final String[] strings;
+
+    private MemberSnapshot(@NonNull Map<String, Integer> entries, @NonNull byte[] tags, @NonNull int[] starts,
+                           @NonNull int[] layout, @NonNull String[] strings) {
+        this.entries = entries;
+        this.tags = tags;
+        this.starts = starts;
+        this.layout = layout;
+        this.strings = strings;
+    }
+
+    /**
+     * 读取缓存存储中的全部二进制条目，无法解码的条目会被跳过，之后由常规读取流程处理
+     *
+     * @param skip 需要跳过的 key，例如版本等标记
+     */
+    @NonNull
+    static MemberSnapshot load(@NonNull IDexkitStore store, @NonNull Predicate<String> skip) {
+        Builder builder = new Builder();
+        store.forEach((key, value) -> {
+            if (skip.test(key) || !MemberCodec.isBinary(value)) return;
+            try {
+                MemberRecord record = MemberCodec.decode(value);
+                if (!record.isNone()) // 未找到结果的条目可能过期，由常规读取流程处理
+                    builder.add(key, record);
+            } catch (UnexpectedException ignored) {
+            }
+        });
+        return builder.build();
+    }
+
+    @Nullable
+    MemberRecord get(@NonNull String key) {
+        Integer entry = entries.get(key);
+        if (entry == null) return null;
+
+        int start = starts[entry];
+        String[] descriptors = strings(start);
+        String[] dependencies = strings(start + 1 + descriptors.length);
+        int tag = tags[entry] & 0xFF;
+        return new MemberRecord((byte) (tag & ~FLAG_LIST), (tag & FLAG_LIST) != 0, descriptors, dependencies);
+    }
+
+    void remove(@NonNull String key) {
+        entries.remove(key);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    @NonNull
+    private String[] strings(int start) {
+        String[] values = new String[layout[start]];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = strings[layout[start + 1 + i]];
+        }
+        return values;
+    }
+
+    private static final class Builder {
+        private final Map<String, Integer> entries = new ConcurrentHashMap<>();
+        private final Map<String, Integer> stringIds = new HashMap<>();
+        private final ArrayList<String> strings = new ArrayList<>();
+        private byte[] tags = new byte[64];
+        private int[] starts = new int[64];
+        private int[] layout = new int[256];
+        private int count = 0;
+        private int size = 0;
+
+        void add(@NonNull String key, @NonNull MemberRecord record) {
+            if (count == tags.length) {
+                tags = Arrays.copyOf(tags, count * 2);
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            tags[count] = (byte) (record.isList ? record.type | FLAG_LIST : record.type);
+            starts[count] = size;
+            addStrings(record.descriptors);
+            addStrings(record.dependencies);
+            entries.put(key, count++);
+        }
+
+        private void addStrings(@NonNull String[] values) {
+            int required = size + 1 + values.length;
+            if (required > layout.length)
+                layout = Arrays.copyOf(layout, Math.max(required, layout.length * 2));
+
+            layout[size++] = values.length;
+            for (String value : values) {
+                Integer id = stringIds.get(value);
+                if (id == null) {
+                    id = strings.size();
+                    strings.add(value);
+                    stringIds.put(value, id);
+                }
+                layout[size++] = id;
+            }
+        }
+
+        @NonNull
+        MemberSnapshot build() {
+            return new MemberSnapshot(entries, Arrays.copyOf(tags, count), Arrays.copyOf(starts, count),
+                Arrays.copyOf(layout, size), strings.toArray(new String[0]));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 跨进程的缓存填充锁
+ * <p>
+ * key 按哈希分布到锁文件的各个字节区域，持有区域锁的进程负责查找并写入这些 key，
+ * 其他进程在超时时间内等待，获得锁后重新读取缓存存储即可得到结果。
+ * 持有锁的进程退出时系统会自动释放文件锁，等待的进程随后会自行查找。
+ * <p>
+ * 文件锁属于整个进程，因此同一进程内先通过各区域的 ReentrantLock 互斥，同一锁文件在进程内只应打开一个实例。
+ *
+ * @author 焕晨HChen
+ */
+final class ProcessLock implements Closeable {
+    private static final int REGIONS = 1024;
+    // 获取文件锁失败时的重试间隔
+    private static final long RETRY_INTERVAL = 20;
+    @NonNull
+    private final FileChannel channel;
+    private final ReentrantLock[] locks = new ReentrantLock[REGIONS];
+    // 由对应区域的 ReentrantLock 保护
+    private final FileLock[] fileLocks = new FileLock[REGIONS];
+
+    ProcessLock(@NonNull String path, @NonNull String name) throws IOException {
+        File dir = new File(path);
+        if (!dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("[DexkitCache]: Failed to create cache dir: " + path);
+
+        channel = FileChannel.open(new File(dir, name + ".lock").toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        for (int i = 0; i < REGIONS; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 在超时时间内获取全部 key 所在区域的锁，区域按顺序获取以避免死锁
+     *
+     * @param timeout 超时时间，单位为毫秒
+     * @return 已获取的锁，超时未能获取的 key 不包含在内
+     */
+    @NonNull
+    Handle acquire(@NonNull Collection<String> keys, long timeout) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        Set<Integer> regions = new TreeSet<>();
+        for (String key : keys) {
+            regions.add(region(key));
+        }
+
+        Handle handle = new Handle();
+        for (int region : regions) {
+            if (lock(region, deadline))
+                handle.regions.add(region);
+        }
+        return handle;
+    }
+
+    private static int region(@NonNull String key) {
+        return Math.floorMod(key.hashCode(), REGIONS);
+    }
+
+    private boolean lock(int region, long deadline) {
+        ReentrantLock lock = locks[region];
+        try {
+            if (!lock.tryLock(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS))
+                return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (lock.getHoldCount() > 1)
+            return true; // 当前线程已持有此区域的文件锁
+
+        try {
+            while (true) {
+                FileLock fileLock = channel.tryLock(region, 1, false);
+                if (fileLock != null) {
+                    fileLocks[region] = fileLock;
+                    return true;
+                }
+
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) break;
+                Thread.sleep(Math.min(remaining, RETRY_INTERVAL));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // 无法获取文件锁时不再协调，由调用方自行查找
+        }
+        lock.unlock();
+        return false;
+    }
+
+    private void unlock(int region) {
+        ReentrantLock lock = locks[region];
+        if (lock.getHoldCount() == 1) {
+            FileLock fileLock = fileLocks[region];
+            fileLocks[region] = null;
+            try {
+                if (fileLock != null && fileLock.isValid())
+                    fileLock.release();
+            } catch (IOException ignored) {
+            }
+        }
+        lock.unlock();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * 已获取的区域锁，需要在写入缓存条目后关闭
+     */
+    final class Handle implements AutoCloseable {
+        private final Set<Integer> regions = new HashSet<>();
+
+        private Handle() {
+        }
+
+        /**
+         * 此 key 所在区域的锁是否已获取
+         */
+        boolean contains(@NonNull String key) {
+            return regions.contains(region(key));
+        }
+
+        @Override
+        public void close() {
+            regions.forEach(ProcessLock.this::unlock);
+            regions.clear();
+        }
+    }
+}
@@ -22,8 +22,6 @@ import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 
-import com.tencent.mmkv.MMKV;
-
 import org.luckypray.dexkit.DexKitBridge;
 import org.luckypray.dexkit.query.FindClass;
 import org.luckypray.dexkit.query.FindMethod;
@@ -47,13 +45,13 @@ final class TestExample {
         DexkitCache.init("test_cache", classLoader, sourceDir, dataDir); // 初始化工具
         DexkitCache.setInitializationListener(new IInitialization() {
             @Override
-            public void initialization(@NonNull MMKV mmkv) {
-                if (mmkv.containsKey("custom_key")) {
-                    if (!TextUtils.equals("new_key", mmkv.getString("custom_key", "unknown"))) {
-                        mmkv.clear();
-                        mmkv.putString("custom_key", "new_key");
+            public void initialization(@NonNull IDexkitStore store) {
+                if (store.contains("custom_key")) {
+                    if (!TextUtils.equals("new_key", store.getString("custom_key"))) {
+                        store.clear();
+                        store.putString("custom_key", "new_key");
                     }
-                } else mmkv.putString("custom_key", "new_key");
+                } else store.putString("custom_key", "new_key");
             }
         });
     }
@@ -0,0 +1,187 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import androidx.annotation.NonNull;
+
+import org.luckypray.dexkit.result.ClassData;
+import org.luckypray.dexkit.result.ClassDataList;
+import org.luckypray.dexkit.result.FieldData;
+import org.luckypray.dexkit.result.FieldDataList;
+import org.luckypray.dexkit.result.MethodData;
+import org.luckypray.dexkit.result.MethodDataList;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 基准测试共用的数据
+ * <p>
+ * 成员取自 JDK 中的类，描述符格式与 dexkit 的 serialize() 一致；dexkit 的查找结果由这些描述符直接创建。
+ *
+ * @author 焕晨HChen
+ */
+final class BenchmarkSupport {
+    // 用于生成成员的类，数量不足时循环使用
+    private static final Class<?>[] SOURCES = new Class<?>[]{
+        String.class, StringBuilder.class, Integer.class, Long.class, Double.class,
+        Character.class, Math.class, Thread.class, Class.class, System.class,
+        Arrays.class, Collections.class, ArrayList.class, ArrayDeque.class, HashMap.class,
+        LinkedHashMap.class, TreeMap.class, ConcurrentHashMap.class
+    };
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 生成指定类型与数量的描述符，相当于一次 dexkit 查找的结果
+     */
+    @NonNull
+    static String[] descriptors(byte type, int size) {
+        List<String> pool = new ArrayList<>();
+        for (Class<?> clazz : SOURCES) {
+            switch (type) {
+                case MemberRecord.TYPE_CLASS -> pool.add(descriptor(clazz));
+                case MemberRecord.TYPE_METHOD -> {
+                    for (Method method : clazz.getDeclaredMethods()) {
+                        if (!method.isSynthetic()) pool.add(descriptor(method));
+                    }
+                }
+                case MemberRecord.TYPE_FIELD -> {
+                    for (Field field : clazz.getDeclaredFields()) {
+                        if (!field.isSynthetic()) pool.add(descriptor(field));
+                    }
+                }
+                default ->
+                    throw new UnexpectedException("[DexkitCache]: Unknown member type: " + type);
+            }
+        }
+
+        String[] descriptors = new String[size];
+        for (int i = 0; i < size; i++) {
+            descriptors[i] = pool.get(i % pool.size());
+        }
+        return descriptors;
+    }
+
+    @NonNull
+    static MemberRecord record(byte type, int size) {
+        String[] descriptors = descriptors(type, size);
+        return size == 1 ? MemberRecord.single(type, descriptors[0]) : MemberRecord.list(type, Arrays.asList(descriptors));
+    }
+
+    static byte type(@NonNull String name) {
+        return switch (name) {
+            case "CLASS" -> MemberRecord.TYPE_CLASS;
+            case "METHOD" -> MemberRecord.TYPE_METHOD;
+            case "FIELD" -> MemberRecord.TYPE_FIELD;
+            default -> throw new UnexpectedException("[DexkitCache]: Unknown member type: " + name);
+        };
+    }
+
+    @NonNull
+    static String descriptor(@NonNull Class<?> clazz) {
+        return MemberResolver.descriptor(clazz);
+    }
+
+    @NonNull
+    static String descriptor(@NonNull Method method) {
+        StringBuilder builder = new StringBuilder(descriptor(method.getDeclaringClass()))
+            .append("->").append(method.getName()).append('(');
+        for (Class<?> parameter : method.getParameterTypes()) {
+            builder.append(descriptor(parameter));
+        }
+        return builder.append(')').append(descriptor(method.getReturnType())).toString();
+    }
+
+    @NonNull
+    static String descriptor(@NonNull Field field) {
+        return descriptor(field.getDeclaringClass()) + "->" + field.getName() + ":" + descriptor(field.getType());
+    }
+
+    /**
+     * 由描述符创建 dexkit 的查找结果，作为基准测试中 IDexkit 的返回值
+     */
+    @NonNull
+    static Object dexkit(@NonNull MemberRecord record) {
+        String[] descriptors = record.descriptors;
+        return switch (record.type) {
+            case MemberRecord.TYPE_CLASS -> {
+                if (!record.isList) yield new ClassData(descriptors[0]);
+                ClassDataList list = new ClassDataList();
+                for (String descriptor : descriptors) list.add(new ClassData(descriptor));
+                yield list;
+            }
+            case MemberRecord.TYPE_METHOD -> {
+                if (!record.isList) yield new MethodData(descriptors[0]);
+                MethodDataList list = new MethodDataList();
+                for (String descriptor : descriptors) list.add(new MethodData(descriptor));
+                yield list;
+            }
+            case MemberRecord.TYPE_FIELD -> {
+                if (!record.isList) yield new FieldData(descriptors[0]);
+                FieldDataList list = new FieldDataList();
+                for (String descriptor : descriptors) list.add(new FieldData(descriptor));
+                yield list;
+            }
+            default ->
+                throw new UnexpectedException("[DexkitCache]: Unknown member type: " + record.type);
+        };
+    }
+
+    /**
+     * 创建只包含 classes.dex 条目的 apk，供缓存计算 apk 指纹
+     */
+    @NonNull
+    static String createApk(@NonNull File dir) throws IOException {
+        File apk = new File(dir, "base.apk");
+        try (ZipOutputStream outputStream = new ZipOutputStream(new FileOutputStream(apk))) {
+            outputStream.putNextEntry(new ZipEntry("classes.dex"));
+            outputStream.write("dex\n035\0".getBytes(StandardCharsets.US_ASCII));
+            outputStream.closeEntry();
+        }
+        return apk.getPath();
+    }
+
+    static void delete(@NonNull File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        // noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import org.luckypray.dexkit.wrap.DexClass;
+import org.luckypray.dexkit.wrap.DexField;
+import org.luckypray.dexkit.wrap.DexMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findMember 各条路径的基准测试
+ * <p>
+ * 直接调用 {@link DexkitCacheInstance}，缓存存储使用 {@link MappedFileStore}，
+ * DexKitBridge 与 dexkit 查找由替身代替并直接返回预先生成的结果，因此测得的是缓存自身的开销：
+ * <ul>
+ *     <li>memoryHit：进程内缓存命中</li>
+ *     <li>storeHit：新实例的首次查找，从存储读取、解码并解析</li>
+ *     <li>miss：存储中没有此条目，查找后编码写入存储，再解析并放入进程内缓存</li>
+ *     <li>resolveDexkit：只解析描述符，与 dexkit 相同，每个成员都会加载声明类并遍历其成员</li>
+ *     <li>resolveIndexed：只解析描述符，使用已建立的按类索引</li>
+ *     <li>resolveIndexedCold：只解析描述符，新实例需要重新建立按类索引</li>
+ * </ul>
+ * storeHit、miss 与 resolveIndexedCold 在每次调用前创建新实例，size 较小时结果包含 JMH 逐次调用的计时开销。
+ *
+ * @author 焕晨HChen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FindMemberBenchmark {
+    private static final String CACHE_PATH = "/cache";
+    private static final String CACHE_NAME = "benchmark";
+    private static final String KEY = "benchmark";
+
+    @Param({"CLASS", "METHOD", "FIELD"})
+    public String type;
+    @Param({"1", "10", "100", "1000"})
+    public int size;
+
+    private final ClassLoader classLoader = FindMemberBenchmark.class.getClassLoader();
+    private final DexkitCacheInstance.Settings settings = new DexkitCacheInstance.Settings();
+    private File dataDir;
+    private String sourceDir;
+    private volatile IDexkitStore store;
+    private MemberRecord record;
+    private IDexkit<Object> iDexkit;
+    private DexkitCacheInstance instance;
+
+    @Setup
+    public void setup() throws IOException {
+        dataDir = Files.createTempDirectory("dexkit-benchmark").toFile();
+        sourceDir = BenchmarkSupport.createApk(dataDir);
+        settings.storeFactory = (path, name) -> store = new MappedFileStore(path, name);
+        settings.libraryLoader = () -> {
+        }; // 替身 DexKitBridge 不需要 native 库
+        settings.incrementalInvalidation = false; // 替身 apk 中没有可建立索引的 dex
+
+        record = BenchmarkSupport.record(BenchmarkSupport.type(type), size);
+        Object dexkit = BenchmarkSupport.dexkit(record);
+        iDexkit = bridge -> dexkit;
+
+        instance = newInstance();
+        instance.findMember(KEY, iDexkit); // 写入缓存，并在整个测试期间保持缓存存储打开
+    }
+
+    @TearDown
+    public void tearDown() {
+        instance.release();
+        BenchmarkSupport.delete(dataDir);
+    }
+
+    /**
+     * 与 {@link #instance} 共用缓存存储与设置，但进程内缓存与按类索引均为空的新实例
+     */
+    private DexkitCacheInstance newInstance() {
+        return new DexkitCacheInstance(settings, CACHE_PATH, CACHE_NAME, classLoader, sourceDir, dataDir.getPath(), 1);
+    }
+
+    @State(Scope.Thread)
+    public static class ColdInstance {
+        DexkitCacheInstance instance;
+
+        @Setup(Level.Invocation)
+        public void setup(FindMemberBenchmark benchmark) {
+            instance = benchmark.newInstance();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            instance.release();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class MissInstance {
+        DexkitCacheInstance instance;
+
+        @Setup(Level.Invocation)
+        public void setup(FindMemberBenchmark benchmark) {
+            benchmark.store.remove(Collections.singleton(KEY));
+            instance = benchmark.newInstance();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            instance.release();
+        }
+    }
+
+    @Benchmark
+    public Object memoryHit() {
+        return instance.findMember(KEY, iDexkit);
+    }
+
+    @Benchmark
+    public Object storeHit(ColdInstance cold) {
+        return cold.instance.findMember(KEY, iDexkit);
+    }
+
+    @Benchmark
+    public Object miss(MissInstance miss) {
+        return miss.instance.findMember(KEY, iDexkit);
+    }
+
+    @Benchmark
+    public Object[] resolveDexkit() throws ReflectiveOperationException {
+        Object[] members = new Object[record.descriptors.length];
+        for (int i = 0; i < members.length; i++) {
+            String descriptor = record.descriptors[i];
+            members[i] = switch (record.type) {
+                case MemberRecord.TYPE_CLASS -> new DexClass(descriptor).getInstance(classLoader);
+                case MemberRecord.TYPE_METHOD -> new DexMethod(descriptor).getMethodInstance(classLoader);
+                case MemberRecord.TYPE_FIELD -> new DexField(descriptor).getFieldInstance(classLoader);
+                default ->
+                    throw new UnexpectedException("[DexkitCache]: Unknown member type: " + record.type);
+            };
+        }
+        return members;
+    }
+
+    @Benchmark
+    public Object[] resolveIndexed() {
+        return resolve(instance);
+    }
+
+    @Benchmark
+    public Object[] resolveIndexedCold(ColdInstance cold) {
+        return resolve(cold.instance);
+    }
+
+    private Object[] resolve(DexkitCacheInstance instance) {
+        Object[] members = new Object[record.descriptors.length];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = instance.resolveLazily(KEY, record.type, record.descriptors[i]);
+        }
+        return members;
+    }
+}
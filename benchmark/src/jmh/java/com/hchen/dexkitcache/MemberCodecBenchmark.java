@@ -0,0 +1,106 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存条目编解码的基准测试，并与旧版本的 JSON 格式对比
+ *
+ * @author 焕晨HChen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MemberCodecBenchmark {
+    @Param({"CLASS", "METHOD", "FIELD"})
+    public String type;
+    @Param({"1", "10", "100", "1000"})
+    public int size;
+
+    private final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+    private MemberRecord record;
+    private byte[] binary;
+    private LegacyMemberData legacy;
+    private byte[] json;
+
+    @Setup
+    public void setup() {
+        record = BenchmarkSupport.record(BenchmarkSupport.type(type), size);
+        binary = MemberCodec.encode(record);
+        legacy = record.isList
+            ? new LegacyMemberData(type, new ArrayList<>(Arrays.asList(record.descriptors)))
+            : new LegacyMemberData(type, record.descriptors[0]);
+        json = gson.toJson(legacy).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return MemberCodec.encode(record);
+    }
+
+    @Benchmark
+    public MemberRecord decode() {
+        return MemberCodec.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] legacyJsonEncode() {
+        return gson.toJson(legacy).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public LegacyMemberData legacyJsonDecode() {
+        return gson.fromJson(new String(json, StandardCharsets.UTF_8), LegacyMemberData.class);
+    }
+
+    /**
+     * 旧版本缓存使用的 JSON 结构
+     */
+    public static final class LegacyMemberData {
+        public String type;
+        public String serialize = "";
+        public ArrayList<String> serializeList = new ArrayList<>();
+
+        LegacyMemberData(String type, String serialize) {
+            this.type = type;
+            this.serialize = serialize;
+        }
+
+        LegacyMemberData(String type, ArrayList<String> serializeList) {
+            this.type = type;
+            this.serializeList = serializeList;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package android.os;
+
+/**
+ * 基准测试在 JVM 上运行时代替 android.os.Build，系统版本固定不变
+ *
+ * @author 焕晨HChen
+ */
+public final class Build {
+    private Build() {
+    }
+
+    public static final class VERSION {
+        public static final String INCREMENTAL = "benchmark";
+        public static final int SDK_INT = 35;
+
+        private VERSION() {
+        }
+    }
+}
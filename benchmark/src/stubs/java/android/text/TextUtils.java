@@ -0,0 +1,39 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package android.text;
+
+import java.util.Objects;
+
+/**
+ * 基准测试在 JVM 上运行时代替 android.text.TextUtils
+ *
+ * @author 焕晨HChen
+ */
+public final class TextUtils {
+    private TextUtils() {
+    }
+
+    public static boolean equals(CharSequence a, CharSequence b) {
+        return Objects.equals(a == null ? null : a.toString(), b == null ? null : b.toString());
+    }
+
+    public static boolean isEmpty(CharSequence str) {
+        return str == null || str.length() == 0;
+    }
+}
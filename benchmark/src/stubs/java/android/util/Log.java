@@ -0,0 +1,59 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package android.util;
+
+/**
+ * 基准测试在 JVM 上运行时代替 android.util.Log，警告与错误输出到标准错误
+ *
+ * @author 焕晨HChen
+ */
+public final class Log {
+    private Log() {
+    }
+
+    public static int d(String tag, String msg) {
+        return 0;
+    }
+
+    public static int i(String tag, String msg) {
+        return 0;
+    }
+
+    public static int w(String tag, String msg) {
+        return w(tag, msg, null);
+    }
+
+    public static int w(String tag, String msg, Throwable tr) {
+        return print("W", tag, msg, tr);
+    }
+
+    public static int e(String tag, String msg) {
+        return e(tag, msg, null);
+    }
+
+    public static int e(String tag, String msg, Throwable tr) {
+        return print("E", tag, msg, tr);
+    }
+
+    private static int print(String level, String tag, String msg, Throwable tr) {
+        System.err.println(level + "/" + tag + ": " + msg);
+        if (tr != null) tr.printStackTrace();
+        return 0;
+    }
+}
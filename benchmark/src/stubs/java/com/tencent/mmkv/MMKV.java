@@ -0,0 +1,95 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.tencent.mmkv;
+
+/**
+ * 仅用于编译 MMKVStore，MMKV 依赖 native 库，在 JVM 上不可用，基准测试使用 MappedFileStore
+ *
+ * @author 焕晨HChen
+ */
+public final class MMKV {
+    public static final int MULTI_PROCESS_MODE = 2;
+
+    private MMKV() {
+    }
+
+    public interface LibLoader {
+        void loadLibrary(String libName);
+    }
+
+    public static String initialize(String rootDir, LibLoader loader) {
+        throw unsupported();
+    }
+
+    public static MMKV mmkvWithID(String mmapID, int mode) {
+        throw unsupported();
+    }
+
+    public boolean containsKey(String key) {
+        throw unsupported();
+    }
+
+    public byte[] decodeBytes(String key) {
+        throw unsupported();
+    }
+
+    public boolean encode(String key, byte[] value) {
+        throw unsupported();
+    }
+
+    public String getString(String key, String defValue) {
+        throw unsupported();
+    }
+
+    public MMKV putString(String key, String value) {
+        throw unsupported();
+    }
+
+    public void removeValueForKey(String key) {
+        throw unsupported();
+    }
+
+    public void removeValuesForKeys(String[] arrKeys) {
+        throw unsupported();
+    }
+
+    public String[] allKeys() {
+        throw unsupported();
+    }
+
+    public MMKV clear() {
+        throw unsupported();
+    }
+
+    public void lock() {
+        throw unsupported();
+    }
+
+    public void unlock() {
+        throw unsupported();
+    }
+
+    public void close() {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("MMKV is not available on the JVM, use MappedFileStore instead");
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package org.luckypray.dexkit;
+
+import org.luckypray.dexkit.query.BatchFindClassUsingStrings;
+import org.luckypray.dexkit.query.BatchFindMethodUsingStrings;
+import org.luckypray.dexkit.result.ClassDataList;
+import org.luckypray.dexkit.result.MethodDataList;
+
+import java.io.Closeable;
+import java.util.Map;
+
+/**
+ * 基准测试在 JVM 上运行时代替 DexKitBridge
+ * <p>
+ * 创建与关闭不涉及 native 库，查找由基准测试的 IDexkit 直接返回预先生成的结果，因此不支持桥接自身的查找。
+ *
+ * @author 焕晨HChen
+ */
+public final class DexKitBridge implements Closeable {
+    private volatile boolean valid = true;
+
+    private DexKitBridge() {
+    }
+
+    public static DexKitBridge create(ClassLoader loader, boolean useMemoryDexFile) {
+        return new DexKitBridge();
+    }
+
+    public static DexKitBridge create(String apkPath) {
+        return new DexKitBridge();
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public Map<String, ClassDataList> batchFindClassUsingStrings(BatchFindClassUsingStrings query) {
+        throw new UnsupportedOperationException("Batch finding is not available in benchmarks");
+    }
+
+    public Map<String, MethodDataList> batchFindMethodUsingStrings(BatchFindMethodUsingStrings query) {
+        throw new UnsupportedOperationException("Batch finding is not available in benchmarks");
+    }
+
+    @Override
+    public void close() {
+        valid = false;
+    }
+}
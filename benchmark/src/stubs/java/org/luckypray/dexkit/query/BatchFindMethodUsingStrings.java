@@ -0,0 +1,39 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package org.luckypray.dexkit.query;
+
+import java.util.Collection;
+
+/**
+ * 仅用于编译 DexkitQueries，基准测试不会执行批量查找
+ *
+ * @author 焕晨HChen
+ */
+public final class BatchFindMethodUsingStrings {
+    private BatchFindMethodUsingStrings() {
+    }
+
+    public static BatchFindMethodUsingStrings create() {
+        return new BatchFindMethodUsingStrings();
+    }
+
+    public BatchFindMethodUsingStrings addSearchGroup(String groupName, Collection<String> usingStrings) {
+        return this;
+    }
+}
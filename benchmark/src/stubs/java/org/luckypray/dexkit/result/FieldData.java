@@ -0,0 +1,39 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package org.luckypray.dexkit.result;
+
+import org.luckypray.dexkit.result.base.BaseData;
+import org.luckypray.dexkit.wrap.DexField;
+
+/**
+ * 基准测试在 JVM 上运行时代替 dexkit 的 FieldData，由描述符直接创建
+ *
+ * @author 焕晨HChen
+ */
+public final class FieldData extends BaseData {
+    private final String descriptor;
+
+    public FieldData(String descriptor) {
+        this.descriptor = descriptor;
+    }
+
+    public DexField toDexField() {
+        return new DexField(descriptor);
+    }
+}
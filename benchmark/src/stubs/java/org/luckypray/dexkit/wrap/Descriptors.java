@@ -0,0 +1,63 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package org.luckypray.dexkit.wrap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 由类型描述符加载类
+ *
+ * @author 焕晨HChen
+ */
+final class Descriptors {
+    private Descriptors() {
+    }
+
+    static Class<?>[] loadTypes(String descriptor, int start, int end, ClassLoader classLoader) throws ClassNotFoundException {
+        List<Class<?>> types = new ArrayList<>();
+        int index = start;
+        while (index < end) {
+            int begin = index;
+            while (descriptor.charAt(index) == '[') index++;
+            if (descriptor.charAt(index) == 'L') index = descriptor.indexOf(';', index);
+            index++;
+            types.add(loadClass(descriptor.substring(begin, index), classLoader));
+        }
+        return types.toArray(new Class<?>[0]);
+    }
+
+    static Class<?> loadClass(String descriptor, ClassLoader classLoader) throws ClassNotFoundException {
+        return switch (descriptor.charAt(0)) {
+            case 'V' -> void.class;
+            case 'Z' -> boolean.class;
+            case 'B' -> byte.class;
+            case 'C' -> char.class;
+            case 'S' -> short.class;
+            case 'I' -> int.class;
+            case 'J' -> long.class;
+            case 'F' -> float.class;
+            case 'D' -> double.class;
+            case '[' -> Class.forName(descriptor.replace('/', '.'), false, classLoader);
+            case 'L' ->
+                Class.forName(descriptor.substring(1, descriptor.length() - 1).replace('/', '.'), false, classLoader);
+            default -> throw new ClassNotFoundException(descriptor);
+        };
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package org.luckypray.dexkit.wrap;
+
+import java.lang.reflect.Field;
+
+/**
+ * 基准测试在 JVM 上运行时代替 dexkit 的 DexField
+ * <p>
+ * 与 dexkit 相同，每次解析都会加载声明类并逐个比较其声明的字段，找到的字段会被设置为可访问。
+ *
+ * @author 焕晨HChen
+ */
+public final class DexField {
+    private final String descriptor;
+
+    public DexField(String descriptor) {
+        this.descriptor = descriptor;
+    }
+
+    public String serialize() {
+        return descriptor;
+    }
+
+    public Field getFieldInstance(ClassLoader classLoader) throws ClassNotFoundException, NoSuchFieldException {
+        int arrow = descriptor.indexOf("->");
+        int colon = descriptor.indexOf(':', arrow);
+        Class<?> declaringClass = Descriptors.loadClass(descriptor.substring(0, arrow), classLoader);
+        String name = descriptor.substring(arrow + 2, colon);
+        Class<?> type = Descriptors.loadClass(descriptor.substring(colon + 1), classLoader);
+        for (Field field : declaringClass.getDeclaredFields()) {
+            if (field.getName().equals(name) && field.getType() == type) {
+                field.setAccessible(true);
+                return field;
+            }
+        }
+        throw new NoSuchFieldException(descriptor);
+    }
+}
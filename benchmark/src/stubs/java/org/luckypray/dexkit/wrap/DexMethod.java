@@ -0,0 +1,59 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package org.luckypray.dexkit.wrap;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * 基准测试在 JVM 上运行时代替 dexkit 的 DexMethod
+ * <p>
+ * 与 dexkit 相同，每次解析都会加载声明类并逐个比较其声明的方法，找到的方法会被设置为可访问。
+ *
+ * @author 焕晨HChen
+ */
+public final class DexMethod {
+    private final String descriptor;
+
+    public DexMethod(String descriptor) {
+        this.descriptor = descriptor;
+    }
+
+    public String serialize() {
+        return descriptor;
+    }
+
+    public Method getMethodInstance(ClassLoader classLoader) throws ClassNotFoundException, NoSuchMethodException {
+        int arrow = descriptor.indexOf("->");
+        int open = descriptor.indexOf('(', arrow);
+        int close = descriptor.indexOf(')', open);
+        Class<?> declaringClass = Descriptors.loadClass(descriptor.substring(0, arrow), classLoader);
+        String name = descriptor.substring(arrow + 2, open);
+        Class<?>[] parameters = Descriptors.loadTypes(descriptor, open + 1, close, classLoader);
+        Class<?> returnType = Descriptors.loadClass(descriptor.substring(close + 1), classLoader);
+        for (Method method : declaringClass.getDeclaredMethods()) {
+            if (method.getName().equals(name) && method.getReturnType() == returnType
+                && Arrays.equals(method.getParameterTypes(), parameters)) {
+                method.setAccessible(true);
+                return method;
+            }
+        }
+        throw new NoSuchMethodException(descriptor);
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * This file is part of DexkitCache.
+
+ * DexkitCache is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+
+ * Copyright (C) 2023-2025 HChenX
+ */
+package com.hchen.dexkitcache.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * {@code @DexkitMember} 注解处理器
+ * <p>
+ * 为每个包含被标记方法的类生成 {@code <类名>Members}，每个 key 对应一个返回具体类型的静态访问方法，
+ * 查找结果保存在首次访问时才初始化的静态常量中，不再经过 findMember 的泛型转换。
+ * <p>
+ * 同时生成包含全部 key 的 DexkitRegistry，默认位于按名称排序后第一个被标记的类所在的包，
+ * 可通过 {@code -Adexkitcache.registry=<完整类名>} 指定。
+ *
+ * @author 焕晨HChen
+ */
+@SupportedAnnotationTypes(DexkitMemberProcessor.ANNOTATION)
+@SupportedOptions(DexkitMemberProcessor.OPTION_REGISTRY)
+public final class DexkitMemberProcessor extends AbstractProcessor {
+    static final String ANNOTATION = "com.hchen.dexkitcache.DexkitMember";
+    static final String OPTION_REGISTRY = "dexkitcache.registry";
+    private static final String REGISTRY_NAME = "DexkitRegistry";
+    private static final String BRIDGE = "org.luckypray.dexkit.DexKitBridge";
+    private static final Map<String, String> MEMBER_TYPES = Map.of(
+        "org.luckypray.dexkit.result.ClassData", "java.lang.Class<?>",
+        "org.luckypray.dexkit.result.MethodData", "java.lang.reflect.Method",
+        "org.luckypray.dexkit.result.FieldData", "java.lang.reflect.Field",
+        "org.luckypray.dexkit.result.ClassDataList", "java.lang.Class<?>[]",
+        "org.luckypray.dexkit.result.MethodDataList", "java.lang.reflect.Method[]",
+        "org.luckypray.dexkit.result.FieldDataList", "java.lang.reflect.Field[]"
+    );
+    // 全部轮次中已处理的 key
+    private final Set<String> keys = new HashSet<>();
+    // 按访问类中的顺序排列的 key
+    private final List<String> orderedKeys = new ArrayList<>();
+    // 已生成的访问类完整类名，按名称排序
+    private final List<String> holders = new ArrayList<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+    private boolean registryWritten = false;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(ANNOTATION);
+        if (annotation == null) return false;
+
+        Map<String, List<Query>> queries = new TreeMap<>();
+        Map<String, TypeElement> owners = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            Query query = parse((ExecutableElement) element, annotation);
+            if (query == null) continue;
+            if (!keys.add(query.key)) {
+                error(element, "Duplicate dexkit key: " + query.key);
+                continue;
+            }
+
+            String owner = query.owner.getQualifiedName().toString();
+            owners.put(owner, query.owner);
+            queries.computeIfAbsent(owner, k -> new ArrayList<>()).add(query);
+            originatingElements.add(element);
+        }
+        if (queries.isEmpty()) return true;
+
+        if (registryWritten) {
+            queries.values().forEach(list -> list.forEach(query ->
+                error(query.method, "@DexkitMember in generated sources is not supported")));
+            return true;
+        }
+
+        queries.forEach((owner, list) -> {
+            list.sort(Comparator.comparingInt(query -> query.owner.getEnclosedElements().indexOf(query.method)));
+            writeHolder(owners.get(owner), list);
+        });
+        writeRegistry();
+        registryWritten = true;
+        return true;
+    }
+
+    private Query parse(ExecutableElement method, TypeElement annotation) {
+        if (!method.getModifiers().contains(Modifier.STATIC) || method.getModifiers().contains(Modifier.PRIVATE)) {
+            error(method, "@DexkitMember method must be static and not private");
+            return null;
+        }
+
+        Types types = processingEnv.getTypeUtils();
+        List<? extends VariableElement> parameters = method.getParameters();
+        if (parameters.size() != 1 || !BRIDGE.equals(types.erasure(parameters.get(0).asType()).toString())) {
+            error(method, "@DexkitMember method must take a single DexKitBridge parameter");
+            return null;
+        }
+
+        String memberType = MEMBER_TYPES.get(types.erasure(method.getReturnType()).toString());
+        if (memberType == null) {
+            error(method, "@DexkitMember method must return ClassData, MethodData, FieldData or one of their lists");
+            return null;
+        }
+
+        Elements elements = processingEnv.getElementUtils();
+        TypeMirror reflective = elements.getTypeElement("java.lang.ReflectiveOperationException").asType();
+        TypeMirror runtime = elements.getTypeElement("java.lang.RuntimeException").asType();
+        TypeMirror error = elements.getTypeElement("java.lang.Error").asType();
+        for (TypeMirror thrown : method.getThrownTypes()) {
+            if (!types.isAssignable(thrown, reflective) && !types.isAssignable(thrown, runtime) && !types.isAssignable(thrown, error)) {
+                error(method, "@DexkitMember method may only throw ReflectiveOperationException: " + thrown);
+                return null;
+            }
+        }
+
+        for (Element owner = method.getEnclosingElement(); owner instanceof TypeElement; owner = owner.getEnclosingElement()) {
+            if (owner.getModifiers().contains(Modifier.PRIVATE)) {
+                error(method, "@DexkitMember method must not be declared in a private class");
+                return null;
+            }
+        }
+
+        String key = null;
+        String name = method.getSimpleName().toString();
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().asElement().equals(annotation)) continue;
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                String value = (String) entry.getValue().getValue();
+                if (entry.getKey().getSimpleName().contentEquals("value")) key = value;
+                else if (entry.getKey().getSimpleName().contentEquals("name") && !value.isEmpty()) name = value;
+            }
+        }
+        if (key == null || key.isEmpty()) {
+            error(method, "@DexkitMember key must not be empty");
+            return null;
+        }
+        if (!SourceVersion.isIdentifier(name) || SourceVersion.isKeyword(name) || name.equals("putQueries")) {
+            error(method, "Invalid @DexkitMember name: " + name);
+            return null;
+        }
+        return new Query(key, name, memberType, method, (TypeElement) method.getEnclosingElement());
+    }
+
+    private void writeHolder(TypeElement owner, List<Query> queries) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(owner).getQualifiedName().toString();
+        String simpleName = holderName(owner);
+        String ownerName = owner.getQualifiedName().toString();
+
+        Set<String> names = new HashSet<>();
+        for (Query query : queries) {
+            orderedKeys.add(query.key);
+            if (!names.add(query.name))
+                error(query.method, "Duplicate @DexkitMember name in " + ownerName + ": " + query.name);
+        }
+
+        StringBuilder builder = new StringBuilder();
+        header(builder, packageName);
+        builder.append("import com.hchen.dexkitcache.DexkitCache;\n")
+            .append("import com.hchen.dexkitcache.IDexkit;\n\n")
+            .append("import java.util.Map;\n\n")
+            .append("/**\n")
+            .append(" * {@link ").append(ownerName).append("} 中 dexkit 查找的成员访问类\n")
+            .append(" * <p>\n")
+            .append(" * 每个成员在首次访问时通过 DexkitCache 的默认实例查找，之后直接读取静态常量；\n")
+            .append(" * 查找失败时首次访问抛出 ExceptionInInitializerError，之后的访问抛出 NoClassDefFoundError。\n")
+            .append(" */\n")
+            .append("public final class ").append(simpleName).append(" {\n")
+            .append("    private ").append(simpleName).append("() {\n")
+            .append("    }\n");
+
+        for (Query query : queries) {
+            builder.append("\n")
+                .append("    /**\n")
+                .append("     * key: <code>").append(javadoc(query.key)).append("</code>\n")
+                .append("     */\n")
+                .append("    public static ").append(query.memberType).append(" ").append(query.name).append("() {\n")
+                .append("        return Holder_").append(query.name).append(".MEMBER;\n")
+                .append("    }\n");
+        }
+
+        builder.append("\n")
+            .append("    /**\n")
+            .append("     * 将此类中的全部 key 与查找添加到 queries 中\n")
+            .append("     */\n")
+            .append("    public static void putQueries(Map<String, IDexkit<?>> queries) {\n");
+        for (Query query : queries) {
+            builder.append("        queries.put(").append(literal(query.key)).append(", (IDexkit<?>) ")
+                .append(ownerName).append("::").append(query.method.getSimpleName()).append(");\n");
+        }
+        builder.append("    }\n");
+
+        for (Query query : queries) {
+            builder.append("\n")
+                .append("    private static final class Holder_").append(query.name).append(" {\n")
+                .append("        static final ").append(query.memberType).append(" MEMBER = DexkitCache.findMember(")
+                .append(literal(query.key)).append(", ").append(ownerName).append("::").append(query.method.getSimpleName()).append(");\n")
+                .append("    }\n");
+        }
+        builder.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        holders.add(qualifiedName);
+        write(qualifiedName, builder, queries.stream().map(query -> (Element) query.method).toArray(Element[]::new));
+    }
+
+    private void writeRegistry() {
+        String registry = processingEnv.getOptions().get(OPTION_REGISTRY);
+        if (registry == null || registry.isEmpty()) {
+            String first = holders.get(0);
+            int index = first.lastIndexOf('.');
+            registry = index < 0 ? REGISTRY_NAME : first.substring(0, index + 1) + REGISTRY_NAME;
+        }
+        int index = registry.lastIndexOf('.');
+        String packageName = index < 0 ? "" : registry.substring(0, index);
+        String simpleName = registry.substring(index + 1);
+
+        StringBuilder builder = new StringBuilder();
+        header(builder, packageName);
+        builder.append("import com.hchen.dexkitcache.DexkitCache;\n")
+            .append("import com.hchen.dexkitcache.IDexkit;\n")
+            .append("import com.hchen.dexkitcache.MemberResults;\n\n")
+            .append("import java.util.Arrays;\n")
+            .append("import java.util.Collections;\n")
+            .append("import java.util.LinkedHashMap;\n")
+            .append("import java.util.LinkedHashSet;\n")
+            .append("import java.util.Map;\n")
+            .append("import java.util.Set;\n\n")
+            .append("/**\n")
+            .append(" * 全部 {@code @DexkitMember} 查找的注册表\n")
+            .append(" */\n")
+            .append("public final class ").append(simpleName).append(" {\n")
+            .append("    /**\n")
+            .append("     * 全部 key\n")
+            .append("     */\n")
+            .append("    public static final Set<String> KEYS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(\n");
+
+        for (int i = 0; i < orderedKeys.size(); i++) {
+            builder.append("        ").append(literal(orderedKeys.get(i))).append(i + 1 < orderedKeys.size() ? ",\n" : "\n");
+        }
+        builder.append("    )));\n\n")
+            .append("    private ").append(simpleName).append("() {\n")
+            .append("    }\n\n")
+            .append("    /**\n")
+            .append("     * 获取全部 key 与查找的映射\n")
+            .append("     */\n")
+            .append("    public static Map<String, IDexkit<?>> queries() {\n")
+            .append("        Map<String, IDexkit<?>> queries = new LinkedHashMap<>();\n");
+        for (String holder : holders) {
+            builder.append("        ").append(holder).append(".putQueries(queries);\n");
+        }
+        builder.append("        return queries;\n")
+            .append("    }\n\n")
+            .append("    /**\n")
+            .append("     * 注册全部查找，之后可通过 DexkitCache.prewarm() 在后台构建缓存\n")
+            .append("     */\n")
+            .append("    public static void register() {\n")
+            .append("        DexkitCache.register(queries());\n")
+            .append("    }\n\n")
+            .append("    /**\n")
+            .append("     * 批量查找全部成员\n")
+            .append("     */\n")
+            .append("    public static MemberResults findAll() {\n")
+            .append("        return DexkitCache.findMembers(queries());\n")
+            .append("    }\n\n")
+            .append("    /**\n")
+            .append("     * 获取已不再使用的查找留下的缓存条目 key\n")
+            .append("     */\n")
+            .append("    public static Set<String> findUnusedKeys() {\n")
+            .append("        return DexkitCache.findUnusedKeys(KEYS);\n")
+            .append("    }\n\n")
+            .append("    /**\n")
+            .append("     * 删除已不再使用的查找留下的缓存条目\n")
+            .append("     */\n")
+            .append("    public static int removeUnusedKeys() {\n")
+            .append("        return DexkitCache.removeUnusedKeys(KEYS);\n")
+            .append("    }\n")
+            .append("}\n");
+
+        write(registry, builder, originatingElements.toArray(new Element[0]));
+    }
+
+    private void header(StringBuilder builder, String packageName) {
+        builder.append("// 由 DexkitMemberProcessor 生成，请勿修改\n");
+        if (!packageName.isEmpty())
+            builder.append("package ").append(packageName).append(";\n");
+        builder.append("\n");
+    }
+
+    private void write(String qualifiedName, StringBuilder builder, Element[] originatingElements) {
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, originatingElements);
+            try (Writer writer = file.openWriter()) {
+                writer.write(builder.toString());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + qualifiedName + ": " + e);
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "[DexkitCache]: " + message, element);
+    }
+
+    /**
+     * 访问类名称，嵌套类以下划线连接外部类名称
+     */
+    private static String holderName(TypeElement owner) {
+        StringBuilder builder = new StringBuilder(owner.getSimpleName());
+        for (Element element = owner.getEnclosingElement(); element.getKind() != ElementKind.PACKAGE; element = element.getEnclosingElement()) {
+            builder.insert(0, '_').insert(0, element.getSimpleName());
+        }
+        return builder.append("Members").toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) builder.append(String.format("\\u%04x", (int) c));
+                    else builder.append(c);
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static String javadoc(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+            .replace("@", "&#64;").replace("*/", "*&#47;").replace("\\u", "\\&#117;")
+            .replace("\n", " ").replace("\r", " ");
+    }
+
+    private record Query(String key, String name, String memberType, ExecutableElement method, TypeElement owner) {
+    }
+}